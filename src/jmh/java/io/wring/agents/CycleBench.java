@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import com.pengrad.telegrambot.TelegramBot;
+import io.wring.fake.FkBase;
+import io.wring.fake.FkPipe;
+import io.wring.model.Base;
+import io.wring.model.Pipe;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xembly.Directives;
+
+/**
+ * Benchmark for {@link Cycle}, with {@link FkAgent} behind it.
+ *
+ * @since 1.0
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CycleBench {
+
+    /**
+     * Base.
+     */
+    private final Base base = new FkBase();
+
+    /**
+     * Queue of Telegram messages.
+     */
+    private final TelegramQueue queue =
+        new TelegramQueue(new TelegramBot(""));
+
+    /**
+     * Cycle, with plans cached between calls.
+     */
+    private final Cycle cycle = new Cycle(this.base, this.queue);
+
+    /**
+     * Pipe.
+     */
+    private final Pipe pipe = new FkPipe(
+        new Directives()
+            .add("pipe")
+            .add("urn").set("urn:test:1").up()
+            .add("id").set("1").up()
+            .add("json").set(
+                String.join(
+                    "",
+                    "{\"class\":\"io.wring.agents.FkAgent\",",
+                    "\"ignore\":[\"/^\\\\[ANN\\\\]/\",\"wip\",\"dependabot\"],",
+                    "\"boost\":[\"@jeff\",\"urgent\",\"(?i)security\"]}"
+                )
+            ).up()
+            .up()
+    );
+
+    /**
+     * One cycle of one pipe.
+     * @throws Exception If fails
+     */
+    @Benchmark
+    public void exec() throws Exception {
+        this.cycle.exec(this.pipe);
+    }
+
+    /**
+     * Close the queue.
+     */
+    @TearDown
+    public void close() {
+        this.queue.close();
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import io.wring.fake.FkEvents;
+import io.wring.model.Events;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link IgnoreEvents} and {@link BoostEvents}, with
+ * a few dozens of rules, literal and regular, as users have them.
+ *
+ * @since 1.0
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventsBench {
+
+    /**
+     * Title of the event.
+     */
+    private static final String TITLE = "yegor256/wring#42";
+
+    /**
+     * Text of the event, which matches none of the rules.
+     */
+    private static final String TEXT = String.join(
+        "\n",
+        "[@jeff](https://github.com/jeff) commented on the issue:",
+        "",
+        "I think that we should move this method to another class,",
+        "because it has nothing to do with the one it is in now.",
+        "See [the code](https://github.com/yegor256/wring/blob/master/x)",
+        "and tell me what you think, maybe I'm wrong here, let's discuss."
+    );
+
+    /**
+     * Config.
+     */
+    private final JsonObject json = EventsBench.config();
+
+    /**
+     * Ignoring events.
+     */
+    private final Events ignore = new IgnoreEvents(
+        new FkEvents(), this.json
+    );
+
+    /**
+     * Boosting events.
+     */
+    private final Events boost = new BoostEvents(
+        new FkEvents(), this.json
+    );
+
+    /**
+     * Post through ignore rules.
+     * @throws Exception If fails
+     */
+    @Benchmark
+    public void ignore() throws Exception {
+        this.ignore.post(EventsBench.TITLE, EventsBench.TEXT);
+    }
+
+    /**
+     * Post through boost rules.
+     * @throws Exception If fails
+     */
+    @Benchmark
+    public void boost() throws Exception {
+        this.boost.post(EventsBench.TITLE, EventsBench.TEXT);
+    }
+
+    /**
+     * Make a config with many rules.
+     * @return JSON
+     */
+    private static JsonObject config() {
+        final JsonArrayBuilder ignore = Json.createArrayBuilder();
+        final JsonArrayBuilder boost = Json.createArrayBuilder();
+        // @checkstyle MagicNumber (1 line)
+        for (int idx = 0; idx < 20; ++idx) {
+            ignore.add(String.format("@bot-%d", idx));
+            ignore.add(String.format("/^\\[release-%d\\]/", idx));
+            boost.add(String.format("urgent-%d", idx));
+            boost.add(String.format("(?i)security\\s+issue\\s+#%d", idx));
+        }
+        return Json.createObjectBuilder()
+            .add("ignore", ignore)
+            .add("boost", boost)
+            .build();
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.jcabi.dynamo.Frame;
+import com.jcabi.dynamo.Item;
+import io.wring.model.Event;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xembly.Directive;
+
+/**
+ * Benchmark for {@link DyEvent#asXembly()}, which calculates MD5
+ * and converts the text to HTML.
+ *
+ * @since 1.0
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DyEventBench {
+
+    /**
+     * Event.
+     */
+    private final Event event = new DyEvent(new DyEventBench.Static());
+
+    /**
+     * Print one event.
+     * @return Directives
+     * @throws Exception If fails
+     */
+    @Benchmark
+    public Iterable<Directive> asXembly() throws Exception {
+        return this.event.asXembly();
+    }
+
+    /**
+     * Item in memory, with a typical event inside.
+     *
+     * @since 1.0
+     */
+    private static final class Static implements Item {
+
+        /**
+         * Attributes.
+         */
+        private final transient Map<String, AttributeValue> attrs;
+
+        /**
+         * Ctor.
+         */
+        Static() {
+            this.attrs = new HashMap<>(0);
+            this.attrs.put("urn", new AttributeValue().withS("urn:test:1"));
+            this.attrs.put("rank", new AttributeValue().withN("1"));
+            this.attrs.put(
+                "title", new AttributeValue().withS("yegor256/wring#42")
+            );
+            final StringBuilder text = new StringBuilder(0);
+            // @checkstyle MagicNumber (1 line)
+            for (int idx = 0; idx < 20; ++idx) {
+                text.append(
+                    String.format(
+                        "[@jeff](https://github.com/jeff) said <b>%d</b> & %s",
+                        idx, "[see](https://github.com/yegor256/wring)\n"
+                    )
+                );
+            }
+            this.attrs.put(
+                "text", new AttributeValue().withS(text.toString())
+            );
+        }
+
+        @Override
+        public AttributeValue get(final String name) {
+            return this.attrs.get(name);
+        }
+
+        @Override
+        public boolean has(final String name) {
+            return this.attrs.containsKey(name);
+        }
+
+        @Override
+        public Map<String, AttributeValue> put(final String name,
+            final AttributeValueUpdate value) {
+            throw new UnsupportedOperationException("#put()");
+        }
+
+        @Override
+        public Map<String, AttributeValue> put(
+            final Map<String, AttributeValueUpdate> values) {
+            throw new UnsupportedOperationException("#put()");
+        }
+
+        @Override
+        public Frame frame() {
+            throw new UnsupportedOperationException("#frame()");
+        }
+    }
+
+}
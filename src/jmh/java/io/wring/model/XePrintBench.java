@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Benchmark for {@link XePrint}, rendering title and hash of one
+ * event, the way {@code TkEvents} does it for every event on the page.
+ *
+ * @since 1.0
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XePrintBench {
+
+    /**
+     * Directives of the event.
+     */
+    private final Iterable<Directive> dirs = new Directives()
+        .add("event")
+        .add("title").set("yegor256/wring#42").up()
+        .add("text").set("@jeff please, take a look at this **bug**").up()
+        .add("html").set("<p>@jeff please, take a look</p>").up()
+        .add("md5").set("c4ca4238a0b923820dcc509a6f75849b").up()
+        .add("rank").set("1").up()
+        .add("time").set("2017-06-21T09:58:00Z").up()
+        .up();
+
+    /**
+     * One print, simple paths, no DOM at all.
+     * @return Text
+     */
+    @Benchmark
+    public String simplePaths() {
+        final XePrint print = new XePrint(this.dirs);
+        return print.text("{/event/title/text()}")
+            + print.text("{/event/md5/text()}");
+    }
+
+    /**
+     * One print, complex paths, the DOM is built once.
+     * @return Text
+     */
+    @Benchmark
+    public String sharedDom() {
+        final XePrint print = new XePrint(this.dirs);
+        return print.text("{/event[1]/title/text()}")
+            + print.text("{/event[1]/md5/text()}");
+    }
+
+    /**
+     * Two prints, complex paths, the DOM is built twice, as it was
+     * done in {@code TkEvents} before.
+     * @return Text
+     */
+    @Benchmark
+    public String domPerPrint() {
+        return new XePrint(this.dirs).text("{/event[1]/title/text()}")
+            + new XePrint(this.dirs).text("{/event[1]/md5/text()}");
+    }
+
+}
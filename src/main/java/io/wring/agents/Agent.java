@@ -82,4 +82,38 @@ public interface Agent {
         }
     }
 
+    /**
+     * Push that can't be done now and has to be repeated later.
+     * @since 1.0
+     */
+    class PostponedException extends IOException {
+        /**
+         * Serialization marker.
+         */
+        private static final long serialVersionUID = 4412316903175932301L;
+
+        /**
+         * When to try again, in milliseconds.
+         */
+        private final long time;
+
+        /**
+         * Ctor.
+         * @param cause The cause
+         * @param when When to try again, in milliseconds
+         */
+        public PostponedException(final String cause, final long when) {
+            super(cause);
+            this.time = when;
+        }
+
+        /**
+         * When to try again.
+         * @return Time in milliseconds
+         */
+        public long until() {
+            return this.time;
+        }
+    }
+
 }
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseThreads;
+import io.wring.model.Event;
+import io.wring.model.Events;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.xembly.Directive;
+
+/**
+ * Events that are buffered in memory during one run of a pipe
+ * and written to the origin all together, see {@link #flush()}.
+ *
+ * <p>Posts with the same title are merged into one, with all their
+ * texts, the latest first. The rank of the merged event grows as
+ * much as it would grow after separate posts.</p>
+ *
+ * @since 1.0
+ */
+final class BatchedEvents implements Events {
+
+    /**
+     * How many events to write in parallel.
+     */
+    private static final int GROUP = 25;
+
+    /**
+     * Threads to write by, shared by all flushes of all pipes.
+     */
+    private static final ExecutorService THREADS =
+        Executors.newFixedThreadPool(
+            BatchedEvents.GROUP, new VerboseThreads(BatchedEvents.class)
+        );
+
+    /**
+     * Separator between texts posted with the same title.
+     */
+    private static final String SEPARATOR = "\n\n---\n\n";
+
+    /**
+     * Origin.
+     */
+    private final transient Events origin;
+
+    /**
+     * Events posted and not written yet, by titles.
+     */
+    private final transient Map<String, BatchedEvents.Pending> pending;
+
+    /**
+     * Ctor.
+     * @param events Agent original
+     */
+    BatchedEvents(final Events events) {
+        this.origin = events;
+        this.pending = new LinkedHashMap<>(0);
+    }
+
+    @Override
+    public Iterable<Event> iterate() throws IOException {
+        return this.origin.iterate();
+    }
+
+    @Override
+    public int total(final int max) throws IOException {
+        return this.origin.total(max);
+    }
+
+    @Override
+    public void post(final String title, final String text) {
+        synchronized (this.pending) {
+            this.pending.computeIfAbsent(
+                title, key -> new BatchedEvents.Pending()
+            ).add(text);
+        }
+    }
+
+    @Override
+    public Event event(final String title) throws IOException {
+        final Event event;
+        synchronized (this.pending) {
+            if (this.pending.containsKey(title)) {
+                event = new BatchedEvents.Unwritten(title, true);
+            } else {
+                event = this.origin.event(title);
+            }
+        }
+        return event;
+    }
+
+    @Override
+    public Event brief(final String title) throws IOException {
+        final Event event;
+        synchronized (this.pending) {
+            if (this.pending.containsKey(title)) {
+                event = new BatchedEvents.Unwritten(title, false);
+            } else {
+                event = this.origin.brief(title);
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Write all buffered events to the origin.
+     *
+     * <p>Events are written in parallel, in groups, by a pool of threads
+     * shared with other pipes. The ones that fail are written once
+     * again, one by one, and if some of them fail again, one exception
+     * is thrown, which names all of them.</p>
+     *
+     * @throws IOException If fails
+     */
+    public void flush() throws IOException {
+        final List<Map.Entry<String, BatchedEvents.Pending>> all;
+        synchronized (this.pending) {
+            all = new ArrayList<>(this.pending.entrySet());
+            this.pending.clear();
+        }
+        if (!all.isEmpty()) {
+            final List<Map.Entry<String, BatchedEvents.Pending>> failed =
+                new LinkedList<>();
+            for (int start = 0; start < all.size();
+                start += BatchedEvents.GROUP) {
+                failed.addAll(
+                    this.write(
+                        all.subList(
+                            start,
+                            Math.min(start + BatchedEvents.GROUP, all.size())
+                        )
+                    )
+                );
+            }
+            final Collection<String> lost = new LinkedList<>();
+            for (final Map.Entry<String, BatchedEvents.Pending> entry
+                : failed) {
+                Logger.info(this, "Writing \"%s\" again", entry.getKey());
+                if (!this.attempt(entry.getKey(), entry.getValue())) {
+                    lost.add(entry.getKey());
+                }
+            }
+            Logger.info(
+                this, "%d events written, %d of them twice, %d failed",
+                all.size() - lost.size(), failed.size(), lost.size()
+            );
+            if (!lost.isEmpty()) {
+                throw new IOException(
+                    String.format(
+                        "Failed to write %d of %d events: \"%s\"",
+                        lost.size(), all.size(),
+                        String.join("\", \"", lost)
+                    )
+                );
+            }
+        }
+    }
+
+    /**
+     * Write a group of events in parallel.
+     *
+     * <p>If interrupted, the writes that are not finished yet
+     * are cancelled.</p>
+     *
+     * @param group The events
+     * @return Events that failed to be written
+     * @throws IOException If interrupted
+     */
+    private List<Map.Entry<String, BatchedEvents.Pending>> write(
+        final List<Map.Entry<String, BatchedEvents.Pending>> group)
+        throws IOException {
+        final List<Future<Boolean>> futures = new ArrayList<>(group.size());
+        for (final Map.Entry<String, BatchedEvents.Pending> entry : group) {
+            futures.add(
+                BatchedEvents.THREADS.submit(
+                    ThreadAppender.PIPES.capturing(
+                        () -> this.attempt(entry.getKey(), entry.getValue())
+                    )
+                )
+            );
+        }
+        final List<Map.Entry<String, BatchedEvents.Pending>> failed =
+            new LinkedList<>();
+        try {
+            for (int idx = 0; idx < group.size(); ++idx) {
+                if (!BatchedEvents.result(futures.get(idx))) {
+                    failed.add(group.get(idx));
+                }
+            }
+        } finally {
+            for (final Future<Boolean> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Wait for the result of one attempt.
+     * @param future The future
+     * @return TRUE if written
+     * @throws IOException If interrupted
+     */
+    private static boolean result(final Future<Boolean> future)
+        throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getLocalizedMessage());
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Try to write one event.
+     * @param title The title
+     * @param event The event
+     * @return TRUE if written
+     */
+    private boolean attempt(final String title,
+        final BatchedEvents.Pending event) {
+        boolean done;
+        try {
+            this.write(title, event);
+            done = true;
+        } catch (final IOException ex) {
+            Logger.warn(
+                this, "Failed to write \"%s\": %s",
+                title, ex.getLocalizedMessage()
+            );
+            done = false;
+        }
+        return done;
+    }
+
+    /**
+     * Write one event.
+     * @param title The title
+     * @param event The event
+     * @throws IOException If fails
+     */
+    private void write(final String title, final BatchedEvents.Pending event)
+        throws IOException {
+        this.origin.post(title, event.text());
+        if (event.points() != 0) {
+            this.origin.event(title).vote(event.points());
+        }
+    }
+
+    /**
+     * Event not written yet.
+     *
+     * @since 1.0
+     */
+    private final class Unwritten implements Event {
+
+        /**
+         * The title.
+         */
+        private final transient String title;
+
+        /**
+         * Render texts too, not only the preview?
+         */
+        private final transient boolean full;
+
+        /**
+         * Ctor.
+         * @param ttl The title
+         * @param texts Render texts too, not only the preview
+         */
+        Unwritten(final String ttl, final boolean texts) {
+            this.title = ttl;
+            this.full = texts;
+        }
+
+        @Override
+        public Iterable<Directive> asXembly() throws IOException {
+            BatchedEvents.this.flush();
+            final Event event;
+            if (this.full) {
+                event = BatchedEvents.this.origin.event(this.title);
+            } else {
+                event = BatchedEvents.this.origin.brief(this.title);
+            }
+            return event.asXembly();
+        }
+
+        @Override
+        public void delete() throws IOException {
+            BatchedEvents.this.flush();
+            BatchedEvents.this.origin.event(this.title).delete();
+        }
+
+        @Override
+        public void vote(final int points) throws IOException {
+            final boolean buffered;
+            synchronized (BatchedEvents.this.pending) {
+                final BatchedEvents.Pending event =
+                    BatchedEvents.this.pending.get(this.title);
+                buffered = event != null;
+                if (buffered) {
+                    event.vote(points);
+                }
+            }
+            if (!buffered) {
+                BatchedEvents.this.origin.event(this.title).vote(points);
+            }
+        }
+    }
+
+    /**
+     * Event posted, but not written yet.
+     *
+     * @since 1.0
+     */
+    private static final class Pending {
+
+        /**
+         * Texts, the latest first.
+         */
+        private final transient List<String> texts;
+
+        /**
+         * Points to add, besides the first post.
+         */
+        private transient int extra;
+
+        /**
+         * Ctor.
+         */
+        Pending() {
+            this.texts = new LinkedList<>();
+        }
+
+        /**
+         * Add one more text.
+         * @param text The text
+         */
+        public void add(final String text) {
+            if (!this.texts.isEmpty()) {
+                ++this.extra;
+            }
+            this.texts.add(0, text.trim());
+        }
+
+        /**
+         * Add points.
+         * @param points How many
+         */
+        public void vote(final int points) {
+            this.extra += points;
+        }
+
+        /**
+         * All texts, together.
+         * @return Text
+         */
+        public String text() {
+            return String.join(BatchedEvents.SEPARATOR, this.texts);
+        }
+
+        /**
+         * Points to add after the first post.
+         * @return Points
+         */
+        public int points() {
+            return this.extra;
+        }
+    }
+
+}
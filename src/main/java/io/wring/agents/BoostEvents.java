@@ -31,11 +31,14 @@ package io.wring.agents;
 
 import com.jcabi.aspects.Tv;
 import com.jcabi.log.Logger;
+import io.wring.model.Errors;
 import io.wring.model.Event;
 import io.wring.model.Events;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.Optional;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.json.JsonArray;
@@ -59,9 +62,14 @@ final class BoostEvents implements Events {
     private final transient Events origin;
 
     /**
-     * Regex to boost.
+     * Rules to boost by.
      */
-    private final transient IoChecked<Pattern> regex;
+    private final transient IoChecked<Filter> rules;
+
+    /**
+     * Where to report broken rules.
+     */
+    private final transient Errors errors;
 
     /**
      * Ctor.
@@ -69,26 +77,41 @@ final class BoostEvents implements Events {
      * @param cfg JSON config
      */
     BoostEvents(final Events events, final JsonObject cfg) {
-        this(events, () -> BoostEvents.pattern(cfg));
+        this(events, () -> BoostEvents.filter(cfg));
+    }
+
+    /**
+     * Ctor.
+     * @param events Agent original
+     * @param rule The rule
+     */
+    BoostEvents(final Events events, final String rule) {
+        this(
+            events,
+            () -> BoostEvents.filter(Collections.singletonList(rule))
+        );
     }
 
     /**
      * Ctor.
      * @param events Agent original
-     * @param ptn Pattern
+     * @param filter Rules
      */
-    BoostEvents(final Events events, final String ptn) {
-        this(events, () -> Pattern.compile(ptn));
+    BoostEvents(final Events events, final Scalar<Filter> filter) {
+        this(events, filter, new Errors.Simple());
     }
 
     /**
      * Ctor.
      * @param events Agent original
-     * @param ptn Pattern
+     * @param filter Rules
+     * @param errs Where to report broken rules
      */
-    BoostEvents(final Events events, final Scalar<Pattern> ptn) {
+    BoostEvents(final Events events, final Scalar<Filter> filter,
+        final Errors errs) {
         this.origin = events;
-        this.regex = new IoChecked<>(new Sticky<>(ptn));
+        this.rules = new IoChecked<>(new Sticky<>(filter));
+        this.errors = errs;
     }
 
     @Override
@@ -96,16 +119,22 @@ final class BoostEvents implements Events {
         return this.origin.iterate();
     }
 
+    @Override
+    public int total(final int max) throws IOException {
+        return this.origin.total(max);
+    }
+
     @Override
     public void post(final String title, final String text) throws IOException {
         this.origin.post(title, text);
-        if (this.regex.value().matcher(text).find()
-            || this.regex.value().matcher(title).find()) {
+        final Optional<String> rule = this.rules.value()
+            .find(this.errors, text, title);
+        if (rule.isPresent()) {
             this.origin.event(title).vote(Tv.FIVE);
             Logger.info(
-                this, "Boosting \"%s\" because of %s",
+                this, "Boosting \"%s\" because of \"%s\"",
                 new Printable(text),
-                this.regex
+                rule.get()
             );
         }
     }
@@ -115,41 +144,54 @@ final class BoostEvents implements Events {
         return this.origin.event(title);
     }
 
+    @Override
+    public Event brief(final String title) throws IOException {
+        return this.origin.brief(title);
+    }
+
     /**
-     * Make regex from a JSON config.
+     * Make a filter from a JSON config.
+     *
+     * <p>All rules are regular expressions, but those without any
+     * special characters are matched as literals.</p>
+     *
      * @param json JSON config
-     * @return Pattern
+     * @return Filter
      * @throws Agent.UserException If fails
      */
-    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
-    private static Pattern pattern(final JsonObject json)
-        throws Agent.UserException {
-        final Collection<Pattern> ptns = new LinkedList<>();
+    static Filter filter(final JsonObject json) throws Agent.UserException {
         final JsonValue value = json.get("boost");
-        if (value == null) {
-            ptns.add(Pattern.compile("never^"));
-        } else {
+        final Collection<String> rules = new LinkedList<>();
+        if (value != null) {
             if (!(value instanceof JsonArray)) {
                 throw new Agent.UserException(
                     "Element 'boost' must be an array"
                 );
             }
-            final JsonArray ignore = value.asJsonArray();
-            ptns.addAll(
-                ignore.getValuesAs(JsonString.class)
+            rules.addAll(
+                value.asJsonArray().getValuesAs(JsonString.class)
                     .stream()
                     .map(JsonString::getString)
-                    .map(Pattern::compile)
                     .collect(Collectors.toList())
             );
         }
-        return Pattern.compile(
-            String.format(
-                "(%s)",
-                ptns.stream()
-                    .map(Pattern::toString)
-                    .collect(Collectors.joining(")|("))
-            )
+        return BoostEvents.filter(rules);
+    }
+
+    /**
+     * Make a filter from rules.
+     * @param rules The rules
+     * @return Filter
+     */
+    private static Filter filter(final Collection<String> rules) {
+        return new Filter(
+            rules.stream()
+                .filter(Filter::literal)
+                .collect(Collectors.toList()),
+            rules.stream()
+                .filter(rule -> !Filter.literal(rule))
+                .map(Pattern::compile)
+                .collect(Collectors.toList())
         );
     }
 
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import io.wring.model.Event;
+import io.wring.model.Events;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Events that count what is posted through them.
+ *
+ * @since 1.0
+ */
+final class CountedEvents implements Events {
+
+    /**
+     * Origin.
+     */
+    private final transient Events origin;
+
+    /**
+     * How many events were posted.
+     */
+    private final transient AtomicInteger total;
+
+    /**
+     * Ctor.
+     * @param events Events to post into
+     */
+    CountedEvents(final Events events) {
+        this.origin = events;
+        this.total = new AtomicInteger();
+    }
+
+    @Override
+    public Iterable<Event> iterate() throws IOException {
+        return this.origin.iterate();
+    }
+
+    @Override
+    public int total(final int max) throws IOException {
+        return this.origin.total(max);
+    }
+
+    @Override
+    public void post(final String title, final String text) throws IOException {
+        this.origin.post(title, text);
+        this.total.incrementAndGet();
+    }
+
+    @Override
+    public Event event(final String title) throws IOException {
+        return this.origin.event(title);
+    }
+
+    @Override
+    public Event brief(final String title) throws IOException {
+        return this.origin.brief(title);
+    }
+
+    /**
+     * How many events were posted so far.
+     * @return Total
+     */
+    public int count() {
+        return this.total.get();
+    }
+
+}
@@ -29,20 +29,18 @@
  */
 package io.wring.agents;
 
-import com.pengrad.telegrambot.TelegramBot;
 import io.wring.model.Base;
+import io.wring.model.Errors;
 import io.wring.model.Events;
 import io.wring.model.Pipe;
+import io.wring.model.User;
+import io.wring.model.Vault;
 import io.wring.model.XePrint;
-import javax.json.Json;
-import javax.json.JsonObject;
-import org.cactoos.Fallback;
+import java.io.IOException;
+import java.util.Collection;
+import javax.json.JsonException;
 import org.cactoos.Proc;
 import org.cactoos.bytes.BytesOf;
-import org.cactoos.func.FuncOf;
-import org.cactoos.func.FuncWithFallback;
-import org.cactoos.func.UncheckedFunc;
-import org.cactoos.io.ReaderOf;
 import org.cactoos.text.TextOf;
 
 /**
@@ -61,73 +59,109 @@ final class Cycle implements Proc<Pipe> {
     /**
      * Telegram.
      */
-    private final transient TelegramBot telegram;
+    private final transient TelegramQueue telegram;
+
+    /**
+     * Compiled plans of pipes.
+     */
+    private final transient Plans plans;
 
     /**
      * Ctor.
      * @param bse Base
+     * @param bot Queue of Telegram messages
      */
-    Cycle(final Base bse) {
-        this(bse, new TelegramBot(""));
+    Cycle(final Base bse, final TelegramQueue bot) {
+        this(bse, bot, new Plans());
     }
 
     /**
      * Ctor.
      * @param bse Base
-     * @param bot The telegram bot
+     * @param bot Queue of Telegram messages
+     * @param cache Compiled plans of pipes
      */
-    Cycle(final Base bse, final TelegramBot bot) {
+    Cycle(final Base bse, final TelegramQueue bot, final Plans cache) {
         this.base = bse;
         this.telegram = bot;
+        this.plans = cache;
     }
 
     @Override
     public void exec(final Pipe pipe) throws Exception {
         final XePrint print = new XePrint(pipe.asXembly());
-        final Events events = this.base.user(
-            print.text("{/pipe/urn/text()}")
-        ).events();
+        final User user = this.base.user(print.text("{/pipe/urn/text()}"));
+        final Events events = user.events();
         final String json = print.text("{/pipe/json/text()}");
-        new UncheckedFunc<>(
-            new FuncWithFallback<String, JsonObject>(
-                str -> Json.createReader(
-                    new ReaderOf(str)
-                ).readObject(),
-                new Fallback.From<>(
-                    Exception.class,
-                    error -> {
-                        events.post(
-                            Cycle.class.getCanonicalName(),
-                            String.format(
-                                "Failed to parse JSON:\n%s\n\n%s",
-                                json, new TextOf(new BytesOf(error)).asString()
-                            )
-                        );
-                        return null;
-                    }
-                ),
-                new Fallback.From<JsonObject>(
-                    Exception.class,
-                    obj -> {
-                        if (obj != null) {
-                            new Exec(
-                                new JsonAgent(this.base, obj),
-                                new IgnoreEvents(
-                                    new TelegramEvents(
-                                        new BoostEvents(events, obj),
-                                        this.telegram,
-                                        obj
-                                    ),
-                                    obj
-                                ),
-                                pipe
-                            ).run();
-                        }
-                        return obj;
-                    }
+        final BatchedEvents batched = new BatchedEvents(events);
+        final CountedEvents counted = new CountedEvents(batched);
+        final Vault vault = new RunVault(this.base.vault());
+        try {
+            final Plan plan = this.plans.plan(
+                print.text("{/pipe/urn/text()}#{/pipe/id/text()}"), json
+            );
+            try {
+                new Exec(
+                    plan.agent(new Cycle.WithVault(this.base, vault)),
+                    plan.events(counted, this.telegram, user.errors()),
+                    counted,
+                    pipe,
+                    new Errors.Simple()
+                ).run();
+            } finally {
+                batched.flush();
+            }
+            vault.flush();
+        } catch (final JsonException ex) {
+            events.post(
+                Cycle.class.getCanonicalName(),
+                String.format(
+                    "Failed to parse JSON:\n%s\n\n%s",
+                    json, new TextOf(new BytesOf(ex)).asString()
                 )
-            )
-        ).apply(json);
+            );
+        }
+    }
+
+    /**
+     * Base with the vault of a single run.
+     *
+     * @since 1.0
+     */
+    private static final class WithVault implements Base {
+        /**
+         * Origin.
+         */
+        private final transient Base origin;
+        /**
+         * Vault of the run.
+         */
+        private final transient Vault vlt;
+        /**
+         * Ctor.
+         * @param bse Origin
+         * @param vault Vault of the run
+         */
+        WithVault(final Base bse, final Vault vault) {
+            this.origin = bse;
+            this.vlt = vault;
+        }
+        @Override
+        public User user(final String urn) {
+            return this.origin.user(urn);
+        }
+        @Override
+        public Collection<Pipe> pipes() {
+            return this.origin.pipes();
+        }
+        @Override
+        public Vault vault() {
+            return this.vlt;
+        }
+        @Override
+        public int reconcile() throws IOException {
+            return this.origin.reconcile();
+        }
     }
 
 }
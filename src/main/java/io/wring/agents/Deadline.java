@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+/**
+ * Text that can be read only till the deadline.
+ *
+ * <p>Regular expressions read the text they match through
+ * {@link #charAt(int)}, so a rule that backtracks too much hits either
+ * the deadline or the limit of steps and gets
+ * {@link Deadline.ExpiredException}, instead of holding the thread
+ * for minutes.</p>
+ *
+ * @since 1.0
+ */
+final class Deadline implements CharSequence {
+
+    /**
+     * How many steps to make between looks at the clock.
+     */
+    private static final int CHECK = 1 << 10;
+
+    /**
+     * The text.
+     */
+    private final transient CharSequence origin;
+
+    /**
+     * When to stop, in nanoseconds, as {@link System#nanoTime()} counts.
+     */
+    private final transient long until;
+
+    /**
+     * Steps left.
+     */
+    private final transient long[] steps;
+
+    /**
+     * Ctor.
+     * @param text The text
+     * @param nanos When to stop, as {@link System#nanoTime()} counts
+     * @param max Maximum number of steps
+     */
+    Deadline(final CharSequence text, final long nanos, final long max) {
+        this(text, nanos, new long[] {max});
+    }
+
+    /**
+     * Ctor.
+     * @param text The text
+     * @param nanos When to stop, as {@link System#nanoTime()} counts
+     * @param left Steps left, shared with all subsequences
+     */
+    private Deadline(final CharSequence text, final long nanos,
+        final long[] left) {
+        this.origin = text;
+        this.until = nanos;
+        this.steps = left;
+    }
+
+    @Override
+    public int length() {
+        return this.origin.length();
+    }
+
+    @Override
+    public char charAt(final int index) {
+        --this.steps[0];
+        if (this.steps[0] < 0L
+            || this.steps[0] % Deadline.CHECK == 0L
+            && System.nanoTime() > this.until) {
+            throw new Deadline.ExpiredException();
+        }
+        return this.origin.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        return new Deadline(
+            this.origin.subSequence(start, end), this.until, this.steps
+        );
+    }
+
+    @Override
+    public String toString() {
+        return this.origin.toString();
+    }
+
+    /**
+     * The deadline or the limit of steps is reached.
+     *
+     * @since 1.0
+     */
+    static final class ExpiredException extends RuntimeException {
+        /**
+         * Serialization marker.
+         */
+        private static final long serialVersionUID = -1870129368702542317L;
+
+        /**
+         * Ctor.
+         */
+        ExpiredException() {
+            super("Deadline expired", null, false, false);
+        }
+    }
+
+}
@@ -36,14 +36,11 @@ import io.sentry.Sentry;
 import io.wring.model.Errors;
 import io.wring.model.Events;
 import io.wring.model.Pipe;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Date;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.text.StringEscapeUtils;
-import org.apache.log4j.Appender;
-import org.apache.log4j.PatternLayout;
 import org.cactoos.Fallback;
 import org.cactoos.func.FuncWithFallback;
 import org.cactoos.func.UncheckedFunc;
@@ -77,6 +74,11 @@ final class Exec {
      */
     private final transient Events events;
 
+    /**
+     * Events that count what is posted.
+     */
+    private final transient CountedEvents counted;
+
     /**
      * Pipe.
      */
@@ -106,8 +108,36 @@ final class Exec {
      * @checkstyle ParameterNumberCheck (2 lines)
      */
     Exec(final Agent agt, final Events evt, final Pipe ppe, final Errors err) {
+        this(agt, new CountedEvents(evt), ppe, err);
+    }
+
+    /**
+     * Ctor.
+     * @param agt Agent
+     * @param evt Events, which count what is posted
+     * @param ppe Pipe
+     * @param err Errors
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    Exec(final Agent agt, final CountedEvents evt, final Pipe ppe,
+        final Errors err) {
+        this(agt, evt, evt, ppe, err);
+    }
+
+    /**
+     * Ctor.
+     * @param agt Agent
+     * @param evt Events to push into
+     * @param cnt Events under them, which count what reaches the user
+     * @param ppe Pipe
+     * @param err Errors
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    Exec(final Agent agt, final Events evt, final CountedEvents cnt,
+        final Pipe ppe, final Errors err) {
         this.agent = agt;
         this.events = evt;
+        this.counted = cnt;
         this.pipe = ppe;
         this.errors = err;
     }
@@ -127,7 +157,7 @@ final class Exec {
                 new Fallback.From<>(
                     Exception.class,
                     err -> {
-                        this.pipe.status(err.getClass().getCanonicalName());
+                        this.pipe.failed(err.getClass().getCanonicalName());
                         title.setLength(0);
                         final String text;
                         if (err instanceof Agent.UserException) {
@@ -206,20 +236,24 @@ final class Exec {
      * @throws IOException If fails
      */
     private String log() throws IOException {
-        final org.apache.log4j.Logger root =
-            org.apache.log4j.Logger.getRootLogger();
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        final Appender appender = new ThreadAppender(
-            new PatternLayout("%t %p %m\n"),
-            baos
-        );
-        root.addAppender(appender);
+        ThreadAppender.PIPES.start();
+        final String log;
         try {
-            this.pipe.status(this.agent.push(this.events));
-            return baos.toString();
+            try {
+                this.pipe.status(
+                    this.agent.push(this.events), this.counted.count()
+                );
+            } catch (final Agent.PostponedException ex) {
+                Logger.info(
+                    this, "Postponed till %tFT%<tRZ: %s",
+                    new Date(ex.until()), ex.getLocalizedMessage()
+                );
+                this.pipe.postpone(ex.getLocalizedMessage(), ex.until());
+            }
         } finally {
-            root.removeAppender(appender);
+            log = ThreadAppender.PIPES.stop();
         }
+        return log;
     }
 
 }
@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import com.jcabi.log.Logger;
+import io.wring.model.Errors;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Set of rules to match texts against.
+ *
+ * <p>Literal rules are matched all together, in one pass over the text,
+ * by an Aho-Corasick automaton, and only the real regular expressions
+ * are matched one by one. Matching stops at the first rule found.</p>
+ *
+ * <p>A regular expression gets limited time and number of steps to match
+ * each text, see {@link Deadline}; those are configured by
+ * {@code wring.regex.timeout} (in milliseconds) and
+ * {@code wring.regex.steps} system properties. A rule that runs out of
+ * them is disabled for good and reported to the user.</p>
+ *
+ * @since 1.0
+ */
+final class Filter {
+
+    /**
+     * Characters that make a string a regular expression.
+     */
+    private static final Pattern META = Pattern.compile(
+        "[\\\\^$.|?*+()\\[\\]{}]"
+    );
+
+    /**
+     * Automaton of literal rules.
+     */
+    private final transient Filter.Automaton literals;
+
+    /**
+     * Regular expressions.
+     */
+    private final transient Collection<Pattern> regexes;
+
+    /**
+     * Regular expressions disabled, because they took too long.
+     */
+    private final transient Set<Pattern> disabled;
+
+    /**
+     * Time for one regular expression to match one text, in nanoseconds.
+     */
+    private final transient long timeout;
+
+    /**
+     * Steps for one regular expression to match one text.
+     */
+    private final transient long steps;
+
+    /**
+     * Ctor.
+     * @param lits Literal rules
+     * @param rgxs Regular expressions
+     */
+    Filter(final Collection<String> lits, final Collection<Pattern> rgxs) {
+        this(
+            lits, rgxs,
+            TimeUnit.MILLISECONDS.toNanos(
+                Long.getLong("wring.regex.timeout", 100L)
+            ),
+            Long.getLong("wring.regex.steps", 10_000_000L)
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param lits Literal rules
+     * @param rgxs Regular expressions
+     * @param nanos Time for one regex to match one text, in nanoseconds
+     * @param max Steps for one regex to match one text
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Filter(final Collection<String> lits, final Collection<Pattern> rgxs,
+        final long nanos, final long max) {
+        this.literals = new Filter.Automaton(lits);
+        this.regexes = new ArrayList<>(rgxs);
+        this.disabled = ConcurrentHashMap.newKeySet();
+        this.timeout = nanos;
+        this.steps = max;
+    }
+
+    /**
+     * Is it a literal, without any special characters of regular
+     * expressions?
+     * @param rule The rule
+     * @return TRUE if it is
+     */
+    static boolean literal(final String rule) {
+        return !Filter.META.matcher(rule).find();
+    }
+
+    /**
+     * Find the first rule that matches some of the texts.
+     * @param errors Where to report rules that take too long
+     * @param texts The texts
+     * @return The rule found, if any
+     */
+    public Optional<String> find(final Errors errors,
+        final CharSequence... texts) {
+        Optional<String> found = Optional.empty();
+        for (final CharSequence text : texts) {
+            found = this.literals.find(text);
+            if (found.isPresent()) {
+                break;
+            }
+            for (final Pattern regex : this.regexes) {
+                if (this.matches(regex, text, errors)) {
+                    found = Optional.of(regex.pattern());
+                    break;
+                }
+            }
+            if (found.isPresent()) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Does the regex match the text in time?
+     * @param regex The regex
+     * @param text The text
+     * @param errors Where to report it, if it takes too long
+     * @return TRUE if it matches
+     */
+    private boolean matches(final Pattern regex, final CharSequence text,
+        final Errors errors) {
+        boolean matches = false;
+        if (!this.disabled.contains(regex)) {
+            try {
+                matches = regex.matcher(
+                    new Deadline(
+                        text, System.nanoTime() + this.timeout, this.steps
+                    )
+                ).find();
+            } catch (final Deadline.ExpiredException ex) {
+                if (this.disabled.add(regex)) {
+                    Logger.warn(
+                        this, "Rule \"%s\" disabled, it took too long",
+                        regex.pattern()
+                    );
+                    errors.register(
+                        String.format(
+                            "Rule \"%s\" is disabled", regex.pattern()
+                        ),
+                        String.format(
+                            // @checkstyle LineLength (1 line)
+                            "It took more than %dms or %d steps to match it against a text of %d characters, most probably because of catastrophic backtracking. It won't be used until you change the config of the pipe.",
+                            TimeUnit.NANOSECONDS.toMillis(this.timeout),
+                            this.steps, text.length()
+                        )
+                    );
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d literal(s) and %d regex(es)",
+            this.literals.size(), this.regexes.size()
+        );
+    }
+
+    /**
+     * Aho-Corasick automaton.
+     *
+     * @since 1.0
+     */
+    private static final class Automaton {
+
+        /**
+         * Transitions of each state, by characters.
+         */
+        private final transient List<Map<Character, Integer>> next;
+
+        /**
+         * Failure links of states.
+         */
+        private final transient List<Integer> fail;
+
+        /**
+         * Rules that end in each state, or in a state it fails to.
+         */
+        private final transient List<String> out;
+
+        /**
+         * How many rules.
+         */
+        private final transient int total;
+
+        /**
+         * Ctor.
+         * @param rules Literal rules
+         */
+        Automaton(final Collection<String> rules) {
+            this.next = new ArrayList<>(1);
+            this.fail = new ArrayList<>(1);
+            this.out = new ArrayList<>(1);
+            this.total = rules.size();
+            this.state();
+            for (final String rule : rules) {
+                this.add(rule);
+            }
+            this.link();
+        }
+
+        /**
+         * How many rules are there.
+         * @return Total
+         */
+        public int size() {
+            return this.total;
+        }
+
+        /**
+         * Find the first rule in the text.
+         * @param text The text
+         * @return The rule, if found
+         */
+        public Optional<String> find(final CharSequence text) {
+            String found = this.out.get(0);
+            int state = 0;
+            for (int pos = 0; found == null && pos < text.length(); ++pos) {
+                final Character chr = text.charAt(pos);
+                while (state > 0 && !this.next.get(state).containsKey(chr)) {
+                    state = this.fail.get(state);
+                }
+                state = this.next.get(state).getOrDefault(chr, 0);
+                found = this.out.get(state);
+            }
+            return Optional.ofNullable(found);
+        }
+
+        /**
+         * Add a rule to the trie.
+         * @param rule The rule
+         */
+        private void add(final String rule) {
+            int state = 0;
+            for (int pos = 0; pos < rule.length(); ++pos) {
+                final Character chr = rule.charAt(pos);
+                Integer target = this.next.get(state).get(chr);
+                if (target == null) {
+                    target = this.state();
+                    this.next.get(state).put(chr, target);
+                }
+                state = target;
+            }
+            if (this.out.get(state) == null) {
+                this.out.set(state, rule);
+            }
+        }
+
+        /**
+         * Set failure links and outputs, breadth first.
+         */
+        private void link() {
+            final Queue<Integer> queue = new LinkedList<>();
+            for (final int child : this.next.get(0).values()) {
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                final int state = queue.remove();
+                for (final Map.Entry<Character, Integer> edge
+                    : this.next.get(state).entrySet()) {
+                    final int child = edge.getValue();
+                    int link = this.fail.get(state);
+                    while (link > 0
+                        && !this.next.get(link).containsKey(edge.getKey())) {
+                        link = this.fail.get(link);
+                    }
+                    this.fail.set(
+                        child,
+                        this.next.get(link).getOrDefault(edge.getKey(), 0)
+                    );
+                    if (this.out.get(child) == null) {
+                        this.out.set(
+                            child, this.out.get(this.fail.get(child))
+                        );
+                    }
+                    queue.add(child);
+                }
+            }
+        }
+
+        /**
+         * Make a new state.
+         * @return Its number
+         */
+        private int state() {
+            this.next.add(new HashMap<>(0));
+            this.fail.add(0);
+            this.out.add(null);
+            return this.next.size() - 1;
+        }
+    }
+
+}
@@ -30,11 +30,14 @@
 package io.wring.agents;
 
 import com.jcabi.log.Logger;
+import io.wring.model.Errors;
 import io.wring.model.Event;
 import io.wring.model.Events;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -59,9 +62,14 @@ final class IgnoreEvents implements Events {
     private final transient Events origin;
 
     /**
-     * Regex to ignore.
+     * Rules to ignore by.
      */
-    private final transient IoChecked<Pattern> regex;
+    private final transient IoChecked<Filter> rules;
+
+    /**
+     * Where to report broken rules.
+     */
+    private final transient Errors errors;
 
     /**
      * Ctor.
@@ -69,26 +77,41 @@ final class IgnoreEvents implements Events {
      * @param cfg JSON config
      */
     IgnoreEvents(final Events events, final JsonObject cfg) {
-        this(events, () -> IgnoreEvents.pattern(cfg));
+        this(events, () -> IgnoreEvents.filter(cfg));
+    }
+
+    /**
+     * Ctor.
+     * @param events Agent original
+     * @param rule The rule
+     */
+    IgnoreEvents(final Events events, final String rule) {
+        this(
+            events,
+            () -> IgnoreEvents.filter(Collections.singletonList(rule))
+        );
     }
 
     /**
      * Ctor.
      * @param events Agent original
-     * @param ptn Pattern
+     * @param filter Rules
      */
-    IgnoreEvents(final Events events, final String ptn) {
-        this(events, () -> IgnoreEvents.pattern(ptn));
+    IgnoreEvents(final Events events, final Scalar<Filter> filter) {
+        this(events, filter, new Errors.Simple());
     }
 
     /**
      * Ctor.
      * @param events Agent original
-     * @param ptn Pattern
+     * @param filter Rules
+     * @param errs Where to report broken rules
      */
-    IgnoreEvents(final Events events, final Scalar<Pattern> ptn) {
+    IgnoreEvents(final Events events, final Scalar<Filter> filter,
+        final Errors errs) {
         this.origin = events;
-        this.regex = new IoChecked<>(new Sticky<>(ptn));
+        this.rules = new IoChecked<>(new Sticky<>(filter));
+        this.errors = errs;
     }
 
     @Override
@@ -96,13 +119,20 @@ final class IgnoreEvents implements Events {
         return this.origin.iterate();
     }
 
+    @Override
+    public int total(final int max) throws IOException {
+        return this.origin.total(max);
+    }
+
     @Override
     public void post(final String title, final String text) throws IOException {
-        if (this.regex.value().matcher(text).find()) {
+        final Optional<String> rule = this.rules.value()
+            .find(this.errors, text);
+        if (rule.isPresent()) {
             Logger.info(
-                this, "Ignoring \"%s\" because of %s",
+                this, "Ignoring \"%s\" because of \"%s\"",
                 new Printable(text),
-                this.regex
+                rule.get()
             );
         } else {
             this.origin.post(title, text);
@@ -114,64 +144,66 @@ final class IgnoreEvents implements Events {
         return this.origin.event(title);
     }
 
-    /**
-     * Make regex from a string.
-     * @param ptn Pattern
-     * @return Pattern
-     */
-    private static Pattern pattern(final String ptn) {
-        final Pattern slashes = Pattern.compile(
-            "/(.*)/", Pattern.DOTALL | Pattern.MULTILINE
-        );
-        final Matcher mtr = slashes.matcher(ptn);
-        final Pattern pattern;
-        if (mtr.matches()) {
-            pattern = Pattern.compile(
-                mtr.group(1),
-                Pattern.CASE_INSENSITIVE | Pattern.DOTALL | Pattern.MULTILINE
-            );
-        } else {
-            pattern = Pattern.compile(Pattern.quote(ptn));
-        }
-        return pattern;
+    @Override
+    public Event brief(final String title) throws IOException {
+        return this.origin.brief(title);
     }
 
     /**
-     * Make regex from a JSON config.
+     * Make a filter from a JSON config.
+     *
+     * <p>Rules in slashes are regular expressions, all others
+     * are literals.</p>
+     *
      * @param json JSON config
-     * @return Pattern
+     * @return Filter
      * @throws Agent.UserException If fails
      */
-    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
-    private static Pattern pattern(final JsonObject json)
-        throws Agent.UserException {
-        final Collection<Pattern> ptns = new LinkedList<>();
+    static Filter filter(final JsonObject json) throws Agent.UserException {
         final JsonValue value = json.get("ignore");
-        if (value == null) {
-            ptns.add(Pattern.compile("never^"));
-        } else {
+        final Collection<String> rules = new LinkedList<>();
+        if (value != null) {
             if (!(value instanceof JsonArray)) {
                 throw new Agent.UserException(
                     "Element 'ignore' must be an array"
                 );
             }
-            final JsonArray ignore = value.asJsonArray();
-            ptns.addAll(
-                ignore.getValuesAs(JsonString.class)
+            rules.addAll(
+                value.asJsonArray().getValuesAs(JsonString.class)
                     .stream()
                     .map(JsonString::getString)
-                    .map(IgnoreEvents::pattern)
                     .collect(Collectors.toList())
             );
         }
-        return Pattern.compile(
-            String.format(
-                "(%s)",
-                ptns.stream()
-                    .map(Pattern::toString)
-                    .collect(Collectors.joining(")|("))
-            )
+        return IgnoreEvents.filter(rules);
+    }
+
+    /**
+     * Make a filter from rules.
+     * @param rules The rules
+     * @return Filter
+     */
+    private static Filter filter(final Collection<String> rules) {
+        final Pattern slashes = Pattern.compile(
+            "/(.*)/", Pattern.DOTALL | Pattern.MULTILINE
         );
+        final Collection<String> literals = new LinkedList<>();
+        final Collection<Pattern> regexes = new LinkedList<>();
+        for (final String rule : rules) {
+            final Matcher mtr = slashes.matcher(rule);
+            if (mtr.matches()) {
+                regexes.add(
+                    Pattern.compile(
+                        mtr.group(1),
+                        Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+                            | Pattern.MULTILINE
+                    )
+                );
+            } else {
+                literals.add(rule);
+            }
+        }
+        return new Filter(literals, regexes);
     }
 
 }
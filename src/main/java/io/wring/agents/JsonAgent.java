@@ -58,6 +58,11 @@ final class JsonAgent implements Agent {
      */
     private final transient IoChecked<JsonObject> json;
 
+    /**
+     * Constructor of the agent.
+     */
+    private final transient IoChecked<Constructor<?>> ctor;
+
     /**
      * Ctor.
      * @param bse Base
@@ -82,8 +87,20 @@ final class JsonAgent implements Agent {
      * @param cfg JSON config
      */
     JsonAgent(final Base bse, final Scalar<JsonObject> cfg) {
+        this(bse, cfg, () -> JsonAgent.ctor(cfg.value()));
+    }
+
+    /**
+     * Ctor.
+     * @param bse Base
+     * @param cfg JSON config
+     * @param type Constructor of the agent
+     */
+    JsonAgent(final Base bse, final Scalar<JsonObject> cfg,
+        final Scalar<Constructor<?>> type) {
         this.base = bse;
         this.json = new IoChecked<>(new NoNulls<>(cfg));
+        this.ctor = new IoChecked<>(type);
     }
 
     @Override
@@ -102,7 +119,26 @@ final class JsonAgent implements Agent {
      * @throws IOException If fails
      */
     private Agent agent() throws IOException {
-        final String name = this.json.value().getString("class", "");
+        try {
+            return Agent.class.cast(
+                this.ctor.value().newInstance(this.base, this.json.value())
+            );
+        } catch (final InstantiationException
+            | IllegalAccessException
+            | InvocationTargetException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Find the constructor of the agent.
+     * @param json JSON config
+     * @return Constructor
+     * @throws Agent.UserException If the class is not specified
+     */
+    static Constructor<?> ctor(final JsonObject json)
+        throws Agent.UserException {
+        final String name = json.getString("class", "");
         if (name.isEmpty()) {
             throw new Agent.UserException(
                 "Your JSON object must contain non-empty \"class\" attribute"
@@ -114,21 +150,11 @@ final class JsonAgent implements Agent {
         } catch (final ClassNotFoundException ex) {
             throw new IllegalStateException(ex);
         }
-        final Constructor<?> ctor;
         try {
-            ctor = type.getConstructor(Base.class, JsonObject.class);
+            return type.getConstructor(Base.class, JsonObject.class);
         } catch (final NoSuchMethodException ex) {
             throw new IllegalStateException(ex);
         }
-        try {
-            return Agent.class.cast(
-                ctor.newInstance(this.base, this.json.value())
-            );
-        } catch (final InstantiationException
-            | IllegalAccessException
-            | InvocationTargetException ex) {
-            throw new IllegalStateException(ex);
-        }
     }
 
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import io.wring.model.Base;
+import io.wring.model.Errors;
+import io.wring.model.Events;
+import java.lang.reflect.Constructor;
+import javax.json.JsonObject;
+import org.cactoos.Scalar;
+import org.cactoos.scalar.Solid;
+
+/**
+ * Compiled plan of a pipe: its parsed JSON config, regular
+ * expressions and agent constructor, made once and used
+ * on every tick, until the JSON changes.
+ *
+ * @since 1.0
+ */
+final class Plan {
+
+    /**
+     * JSON source, as it was parsed.
+     */
+    private final transient String source;
+
+    /**
+     * JSON config.
+     */
+    private final transient JsonObject json;
+
+    /**
+     * Rules to ignore by.
+     */
+    private final transient Scalar<Filter> ignore;
+
+    /**
+     * Rules to boost by.
+     */
+    private final transient Scalar<Filter> boost;
+
+    /**
+     * Constructor of the agent.
+     */
+    private final transient Scalar<Constructor<?>> agent;
+
+    /**
+     * Ctor.
+     * @param src JSON source
+     * @param obj JSON config, parsed from the source
+     */
+    Plan(final String src, final JsonObject obj) {
+        this.source = src;
+        this.json = obj;
+        this.ignore = new Solid<>(() -> IgnoreEvents.filter(obj));
+        this.boost = new Solid<>(() -> BoostEvents.filter(obj));
+        this.agent = new Solid<>(() -> JsonAgent.ctor(obj));
+    }
+
+    /**
+     * Was it made from this JSON source?
+     * @param src JSON source
+     * @return TRUE if the plan is still valid for this source
+     */
+    public boolean madeOf(final String src) {
+        return this.source.hashCode() == src.hashCode()
+            && this.source.equals(src);
+    }
+
+    /**
+     * Make an agent.
+     * @param base The base
+     * @return Agent
+     */
+    public Agent agent(final Base base) {
+        return new JsonAgent(base, () -> this.json, this.agent);
+    }
+
+    /**
+     * Decorate events.
+     * @param events Events of the user
+     * @param bot Queue of Telegram messages
+     * @param errors Errors of the user, to report broken rules to
+     * @return Events to post into
+     */
+    public Events events(final Events events, final TelegramQueue bot,
+        final Errors errors) {
+        return new IgnoreEvents(
+            new TelegramEvents(
+                new BoostEvents(events, this.boost, errors),
+                bot,
+                this.json
+            ),
+            this.ignore,
+            errors
+        );
+    }
+
+}
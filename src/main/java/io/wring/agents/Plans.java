@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.json.Json;
+import org.cactoos.io.ReaderOf;
+
+/**
+ * Compiled plans of pipes, by their keys.
+ *
+ * <p>A plan is re-made only when the JSON of the pipe changes,
+ * otherwise the one made before is returned. Only the plans
+ * used recently are kept, up to the {@code wring.plans.size} system
+ * property, so that plans of deleted pipes don't stay forever.
+ * A plan dropped is simply made again, when its pipe shows up.</p>
+ *
+ * @since 1.0
+ */
+final class Plans {
+
+    /**
+     * Plans, by keys of pipes, the least recently used first.
+     */
+    private final transient Map<String, Plan> map;
+
+    /**
+     * Ctor.
+     */
+    Plans() {
+        this(Integer.getInteger("wring.plans.size", 10_000));
+    }
+
+    /**
+     * Ctor.
+     * @param size Maximum number of plans to keep
+     */
+    @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
+    Plans(final int size) {
+        this.map = new LinkedHashMap<String, Plan>(0, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<String, Plan> eldest) {
+                return this.size() > size;
+            }
+        };
+    }
+
+    /**
+     * Get a plan of the pipe.
+     * @param key Unique key of the pipe
+     * @param json JSON config of the pipe
+     * @return The plan
+     * @throws javax.json.JsonException If the JSON is broken
+     */
+    public Plan plan(final String key, final String json) {
+        Plan plan;
+        synchronized (this.map) {
+            plan = this.map.get(key);
+        }
+        if (plan == null || !plan.madeOf(json)) {
+            plan = new Plan(
+                json, Json.createReader(new ReaderOf(json)).readObject()
+            );
+            synchronized (this.map) {
+                this.map.put(key, plan);
+            }
+        }
+        return plan;
+    }
+
+}
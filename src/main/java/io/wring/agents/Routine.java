@@ -40,20 +40,25 @@ import com.pengrad.telegrambot.request.SendMessage;
 import io.sentry.Sentry;
 import io.wring.model.Base;
 import io.wring.model.Pipe;
-import java.util.ArrayList;
+import io.wring.model.XePrint;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import org.cactoos.Fallback;
 import org.cactoos.func.FuncOf;
 import org.cactoos.func.FuncWithFallback;
-import org.cactoos.iterable.Mapped;
 import org.cactoos.proc.ProcOf;
 import org.cactoos.proc.RunnableOf;
 
@@ -71,14 +76,21 @@ public final class Routine implements Callable<Integer>, AutoCloseable {
     private static final long LAG = 10L;
 
     /**
-     * Base.
+     * Time between ticks, in milliseconds; pipes due in one tick
+     * are spread evenly across it.
      */
-    private final transient Base base;
+    private static final long TICK = TimeUnit.MINUTES.toMillis(1L);
 
     /**
-     * Threads.
+     * Time between reconciliations of totals, in milliseconds,
+     * see {@link Base#reconcile()}.
      */
-    private final transient int threads;
+    private static final long RECONCILE = TimeUnit.HOURS.toMillis(1L);
+
+    /**
+     * Base.
+     */
+    private final transient Base base;
 
     /**
      * Executor.
@@ -95,6 +107,22 @@ public final class Routine implements Callable<Integer>, AutoCloseable {
      */
     private final transient TelegramBot telegram;
 
+    /**
+     * Queue of Telegram messages.
+     */
+    private final transient TelegramQueue queue;
+
+    /**
+     * Compiled plans of pipes.
+     */
+    private final transient Plans plans;
+
+    /**
+     * Pipes submitted and not finished yet, by their keys.
+     */
+    private final transient ConcurrentMap<String, CompletableFuture<Void>>
+        running;
+
     /**
      * Ctor.
      * @param bse Base
@@ -110,21 +138,16 @@ public final class Routine implements Callable<Integer>, AutoCloseable {
      */
     public Routine(final Base bse, final int total) {
         this.base = bse;
-        this.threads = total;
-        this.ticker = Executors.newSingleThreadScheduledExecutor(
-            new VerboseThreads(Routine.class)
-        );
-        this.executor = Executors.newFixedThreadPool(
-            this.threads,
-            new VerboseThreads(
-                String.format(
-                    "Routine-%04x",
-                    // @checkstyle MagicNumber (1 line)
-                    System.currentTimeMillis() % 0xffffL
-                )
-            )
+        final ScheduledThreadPoolExecutor tkr = new ScheduledThreadPoolExecutor(
+            1, new VerboseThreads(Routine.class)
         );
+        tkr.setRemoveOnCancelPolicy(true);
+        this.ticker = tkr;
+        this.executor = Routine.executor(total);
         this.telegram = new TelegramBot(Manifests.read("Wring-TelegramToken"));
+        this.queue = new TelegramQueue(this.telegram);
+        this.running = new ConcurrentHashMap<>(0);
+        this.plans = new Plans();
     }
 
     /**
@@ -146,81 +169,47 @@ public final class Routine implements Callable<Integer>, AutoCloseable {
             }
         );
         Sentry.init(Manifests.read("Wring-SentryDsn"));
+        this.queue.start();
         this.ticker.scheduleWithFixedDelay(
-            new VerboseRunnable(
-                () -> {
-                    try {
-                        this.call();
-                    } catch (final InterruptedException ex) {
-                        Sentry.capture(ex);
-                        Thread.currentThread().interrupt();
-                        throw new IllegalStateException(ex);
-                    }
-                },
-                true, true
+            new VerboseRunnable(this, true, true),
+            Routine.TICK, Routine.TICK, TimeUnit.MILLISECONDS
+        );
+        this.ticker.scheduleWithFixedDelay(
+            () -> this.executor.submit(
+                new VerboseRunnable(
+                    (Callable<Integer>) this.base::reconcile, true, true
+                )
             ),
-            1L, 1L, TimeUnit.MINUTES
+            Routine.RECONCILE, Routine.RECONCILE, TimeUnit.MILLISECONDS
+        );
+        Logger.info(
+            this, "Routine started with %s",
+            this.executor.getClass().getSimpleName()
         );
-        Logger.info(this, "Routine started with %d threads", this.threads);
     }
 
     @Override
-    @SuppressWarnings("PMD.PrematureDeclaration")
-    public Integer call() throws InterruptedException {
-        Thread.getAllStackTraces().forEach(
-            (thread, stack) -> {
-                if (thread.getName().contains("Routine-")
-                    && thread.isInterrupted()) {
-                    Logger.info(
-                        this,
-                        String.format(
-                            "Interrupted thread, cleaning %s/%s/%B/%B",
-                            thread.getName(),
-                            thread.getState(),
-                            thread.isAlive(),
-                            thread.isInterrupted()
-                        )
-                    );
-                    try {
-                        thread.join();
-                    } catch (final InterruptedException err) {
-                        Logger.info(
-                            this,
-                            String.format(
-                                "Cleared thread %s",
-                                thread.getName()
-                            )
-                        );
-                    }
-                }
-            }
-        );
-        final long start = System.currentTimeMillis();
-        final Collection<Future<?>> futures = new ArrayList<>(this.threads);
-        for (final Pipe pipe : this.base.pipes()) {
-            futures.add(this.executor.submit(this.job(pipe)));
-        }
-        try {
-            for (final Future<?> future : futures) {
-                future.get(Routine.LAG, TimeUnit.MINUTES);
-            }
-        } catch (final ExecutionException | TimeoutException ex) {
-            throw new IllegalStateException(ex);
-        }
-        if (Logger.isInfoEnabled(this)) {
-            Logger.info(
-                this, "%d pipes processed in %[ms]s, threads=%d: %s",
-                futures.size(), System.currentTimeMillis() - start,
-                Thread.getAllStackTraces().size(),
-                String.join(
-                    ", ",
-                    new Mapped<>(
-                        Thread::getName, Thread.getAllStackTraces().keySet()
-                    )
-                )
+    public Integer call() throws IOException {
+        final Collection<Pipe> pipes = this.base.pipes();
+        final long gap = Routine.TICK / Math.max(pipes.size(), 1);
+        int submitted = 0;
+        for (final Pipe pipe : pipes) {
+            final String key = new XePrint(pipe.asXembly()).text(
+                "{/pipe/urn/text()}#{/pipe/id/text()}"
             );
+            final CompletableFuture<Void> done = new CompletableFuture<>();
+            if (this.running.putIfAbsent(key, done) != null) {
+                Logger.info(this, "Pipe %s is still running, skipped", key);
+                continue;
+            }
+            this.submit(key, pipe, done, gap * submitted);
+            ++submitted;
         }
-        return futures.size();
+        Logger.info(
+            this, "%d pipes submitted, %d of them skipped, %d running",
+            submitted, pipes.size() - submitted, this.running.size()
+        );
+        return submitted;
     }
 
     @Override
@@ -228,6 +217,7 @@ public final class Routine implements Callable<Integer>, AutoCloseable {
         try {
             Routine.close(this.ticker);
             Routine.close(this.executor);
+            this.queue.close();
         } catch (final InterruptedException ex) {
             Sentry.capture(ex);
             Thread.currentThread().interrupt();
@@ -255,6 +245,161 @@ public final class Routine implements Callable<Integer>, AutoCloseable {
         }
     }
 
+    /**
+     * Make an executor for pipes.
+     *
+     * <p>With {@code -Dwring.virtual=true} and a JVM that supports
+     * virtual threads, every pipe gets its own virtual thread and the
+     * load on GitHub, Telegram and DynamoDB is limited by
+     * {@link io.wring.model.Throttle} instead of the pool size. The
+     * lookup is reflective, since the code is compiled for Java 8.</p>
+     *
+     * @param total How many threads to run, if they are not virtual
+     * @return Executor
+     */
+    private static ExecutorService executor(final int total) {
+        final ExecutorService svc;
+        if (Boolean.getBoolean("wring.virtual")) {
+            svc = Routine.virtual(total);
+        } else {
+            svc = Routine.pool(total);
+        }
+        return svc;
+    }
+
+    /**
+     * Make an executor with a virtual thread per task, if possible.
+     * @param total How many threads to run, if virtual ones are absent
+     * @return Executor
+     */
+    private static ExecutorService virtual(final int total) {
+        ExecutorService svc;
+        try {
+            svc = ExecutorService.class.cast(
+                Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null)
+            );
+        } catch (final ReflectiveOperationException ex) {
+            Logger.warn(
+                Routine.class,
+                "Virtual threads are not available, using %d threads",
+                total
+            );
+            svc = Routine.pool(total);
+        }
+        return svc;
+    }
+
+    /**
+     * Make a pool of platform threads.
+     * @param total How many threads to run
+     * @return Executor
+     */
+    private static ExecutorService pool(final int total) {
+        return Executors.newFixedThreadPool(
+            total,
+            new VerboseThreads(
+                String.format(
+                    "Routine-%04x",
+                    // @checkstyle MagicNumber (1 line)
+                    System.currentTimeMillis() % 0xffffL
+                )
+            )
+        );
+    }
+
+    /**
+     * Submit one pipe, to be finished in {@link #LAG} minutes.
+     *
+     * <p>The pipe stays in {@link #running} until its thread exits,
+     * even if it is cancelled by the watchdog, since a pipe may ignore
+     * the interruption and keep running; otherwise the next tick
+     * would submit it once again, while the old one is still alive.</p>
+     *
+     * @param key Unique key of the pipe
+     * @param pipe The pipe
+     * @param done Completed when the pipe is finished, failed or cancelled
+     * @param delay Delay to start with, in milliseconds
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private void submit(final String key, final Pipe pipe,
+        final CompletableFuture<Void> done, final long delay) {
+        final long start = System.currentTimeMillis() + delay;
+        final Runnable job = this.job(pipe);
+        final AtomicBoolean started = new AtomicBoolean();
+        final AtomicReference<Future<?>> future = new AtomicReference<>();
+        final Future<?> launch = this.ticker.schedule(
+            () -> future.set(
+                this.executor.submit(
+                    () -> {
+                        if (started.compareAndSet(false, true)) {
+                            try {
+                                job.run();
+                                done.complete(null);
+                            // @checkstyle IllegalCatchCheck (1 line)
+                            } catch (final RuntimeException ex) {
+                                done.completeExceptionally(ex);
+                            } finally {
+                                this.exited(key, done, start);
+                            }
+                        }
+                    }
+                )
+            ),
+            delay, TimeUnit.MILLISECONDS
+        );
+        final Future<?> watchdog = this.ticker.schedule(
+            () -> {
+                launch.cancel(false);
+                final Future<?> running = future.get();
+                if (running != null && running.cancel(true)) {
+                    Logger.warn(
+                        this, "Pipe %s cancelled after %d minutes",
+                        key, Routine.LAG
+                    );
+                }
+                done.cancel(true);
+                if (started.compareAndSet(false, true)) {
+                    this.running.remove(key, done);
+                }
+            },
+            delay + TimeUnit.MINUTES.toMillis(Routine.LAG),
+            TimeUnit.MILLISECONDS
+        );
+        done.whenComplete(
+            (nothing, error) -> {
+                watchdog.cancel(false);
+                if (error == null) {
+                    Logger.info(
+                        this, "Pipe %s processed in %[ms]s",
+                        key, System.currentTimeMillis() - start
+                    );
+                } else if (!(error instanceof CancellationException)) {
+                    Logger.error(
+                        this, "Pipe %s failed: %[exception]s", key, error
+                    );
+                }
+            }
+        );
+    }
+
+    /**
+     * The thread of the pipe exited, so it may be submitted again.
+     * @param key Unique key of the pipe
+     * @param done Completed when the pipe is finished, failed or cancelled
+     * @param start When the pipe was due to start
+     */
+    private void exited(final String key, final CompletableFuture<Void> done,
+        final long start) {
+        this.running.remove(key, done);
+        if (done.isCancelled()) {
+            Logger.warn(
+                this, "Pipe %s exited in %[ms]s, after it was cancelled",
+                key, System.currentTimeMillis() - start
+            );
+        }
+    }
+
     /**
      * Create one job for the pipe.
      * @param pipe The pipe
@@ -264,7 +409,9 @@ public final class Routine implements Callable<Integer>, AutoCloseable {
         return new RunnableOf(
             new ProcOf<>(
                 new FuncWithFallback<>(
-                    new FuncOf<>(new Cycle(this.base, this.telegram), null),
+                    new FuncOf<>(
+                        new Cycle(this.base, this.queue, this.plans), null
+                    ),
                     new Fallback.From<Object>(
                         Exception.class,
                         error -> {
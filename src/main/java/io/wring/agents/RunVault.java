@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import io.wring.model.Vault;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Vault of a single run of a pipe.
+ *
+ * <p>Values saved are kept here and are not visible to other pipes
+ * until {@link #flush()}, which passes them to the shared vault and
+ * writes them. Thus, a run that fails to write its events doesn't
+ * mark them as seen, and a run doesn't write the values saved by other
+ * runs, which are still in progress.</p>
+ *
+ * @since 1.0
+ */
+final class RunVault implements Vault {
+
+    /**
+     * Shared vault.
+     */
+    private final transient Vault origin;
+
+    /**
+     * Values saved and not passed to the shared vault yet, by keys.
+     */
+    private final transient Map<String, String> saved;
+
+    /**
+     * Ctor.
+     * @param vault Shared vault
+     */
+    RunVault(final Vault vault) {
+        this.origin = vault;
+        this.saved = new LinkedHashMap<>(0);
+    }
+
+    @Override
+    public Optional<String> value(final String key) throws IOException {
+        final Optional<String> value;
+        synchronized (this.saved) {
+            value = Optional.ofNullable(this.saved.get(key));
+        }
+        final Optional<String> found;
+        if (value.isPresent()) {
+            found = value;
+        } else {
+            found = this.origin.value(key);
+        }
+        return found;
+    }
+
+    @Override
+    public Map<String, String> values(final Collection<String> keys)
+        throws IOException {
+        final Map<String, String> found =
+            new HashMap<>(this.origin.values(keys));
+        synchronized (this.saved) {
+            for (final String key : keys) {
+                if (this.saved.containsKey(key)) {
+                    found.put(key, this.saved.get(key));
+                }
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void save(final String key, final Optional<String> value) {
+        if (!value.isPresent()) {
+            throw new UnsupportedOperationException("can't delete");
+        }
+        synchronized (this.saved) {
+            this.saved.put(key, value.get());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        final Map<String, String> batch;
+        synchronized (this.saved) {
+            batch = new LinkedHashMap<>(this.saved);
+            this.saved.clear();
+        }
+        for (final Map.Entry<String, String> entry : batch.entrySet()) {
+            this.origin.save(entry.getKey(), Optional.of(entry.getValue()));
+        }
+        this.origin.flush();
+    }
+
+}
@@ -29,9 +29,6 @@
  */
 package io.wring.agents;
 
-import com.pengrad.telegrambot.TelegramBot;
-import com.pengrad.telegrambot.model.request.ParseMode;
-import com.pengrad.telegrambot.request.SendMessage;
 import io.wring.model.Event;
 import io.wring.model.Events;
 import java.io.IOException;
@@ -52,7 +49,7 @@ final class TelegramEvents implements Events {
     /**
      * Telegram.
      */
-    private final transient TelegramBot telegram;
+    private final transient TelegramQueue telegram;
 
     /**
      * Tg chat ID.
@@ -62,10 +59,10 @@ final class TelegramEvents implements Events {
     /**
      * Ctor.
      * @param events Agent original
-     * @param bot The bot
+     * @param bot Queue of Telegram messages
      * @param cfg JSON config
      */
-    TelegramEvents(final Events events, final TelegramBot bot,
+    TelegramEvents(final Events events, final TelegramQueue bot,
         final JsonObject cfg) {
         this(events, bot, cfg.getString("telegram", ""));
     }
@@ -73,10 +70,10 @@ final class TelegramEvents implements Events {
     /**
      * Ctor.
      * @param events Agent original
-     * @param bot The bot
+     * @param bot Queue of Telegram messages
      * @param cht Chat ID
      */
-    TelegramEvents(final Events events, final TelegramBot bot,
+    TelegramEvents(final Events events, final TelegramQueue bot,
         final String cht) {
         this.origin = events;
         this.telegram = bot;
@@ -88,14 +85,16 @@ final class TelegramEvents implements Events {
         return this.origin.iterate();
     }
 
+    @Override
+    public int total(final int max) throws IOException {
+        return this.origin.total(max);
+    }
+
     @Override
     public void post(final String title, final String text) throws IOException {
         if (!this.chat.isEmpty()) {
-            this.telegram.execute(
-                new SendMessage(
-                    this.chat,
-                    String.format("%s\n\n%s", title, text)
-                ).disableWebPagePreview(true).parseMode(ParseMode.Markdown)
+            this.telegram.post(
+                this.chat, String.format("%s\n\n%s", title, text)
             );
         }
         this.origin.post(title, text);
@@ -106,4 +105,9 @@ final class TelegramEvents implements Events {
         return this.origin.event(title);
     }
 
+    @Override
+    public Event brief(final String title) throws IOException {
+        return this.origin.brief(title);
+    }
+
 }
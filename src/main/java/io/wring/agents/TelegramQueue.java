@@ -0,0 +1,485 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import com.pengrad.telegrambot.Callback;
+import com.pengrad.telegrambot.TelegramBot;
+import com.pengrad.telegrambot.model.request.ParseMode;
+import com.pengrad.telegrambot.request.SendMessage;
+import com.pengrad.telegrambot.response.SendResponse;
+import io.wring.model.Throttle;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Outbound queue of Telegram messages.
+ *
+ * <p>Messages are not sent right when they are posted, but once in
+ * {@link #WINDOW}, by a dedicated thread, so that a slow Telegram API
+ * doesn't stall pipes. All messages posted to the same chat within
+ * the window are sent as one, as long as they fit into
+ * {@link #LONGEST} characters. When Telegram says "429 Too Many
+ * Requests", the chat is left alone for as many seconds as it
+ * asks for.</p>
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+final class TelegramQueue implements AutoCloseable {
+
+    /**
+     * How long to wait for more messages to the same chat, in msec.
+     */
+    private static final long WINDOW = TimeUnit.SECONDS.toMillis(2L);
+
+    /**
+     * How long to keep delivering the messages left, when closing, in msec.
+     */
+    private static final long AWAIT = TimeUnit.MINUTES.toMillis(1L);
+
+    /**
+     * How long to wait between attempts to deliver the messages left,
+     * when closing, in msec.
+     */
+    private static final long PAUSE = 100L;
+
+    /**
+     * Maximum length of one message in Telegram.
+     */
+    private static final int LONGEST = 4096;
+
+    /**
+     * HTTP status of "Too Many Requests".
+     */
+    private static final int TOO_MANY = 429;
+
+    /**
+     * Bot.
+     */
+    private final transient TelegramBot bot;
+
+    /**
+     * Messages posted and not taken by the sender yet.
+     */
+    private final transient BlockingQueue<TelegramQueue.Message> posted;
+
+    /**
+     * Messages taken by the sender, but not sent yet, by chats; they
+     * are touched only in the thread of the sender.
+     */
+    private final transient Map<String, List<TelegramQueue.Message>> waiting;
+
+    /**
+     * When chats may be bothered again, after 429, by chats; they
+     * are touched only in the thread of the sender.
+     */
+    private final transient Map<String, Long> banned;
+
+    /**
+     * Messages posted and not delivered yet.
+     */
+    private final transient AtomicInteger depth;
+
+    /**
+     * Messages delivered.
+     */
+    private final transient AtomicLong delivered;
+
+    /**
+     * Total time from posting to delivery, in msec.
+     */
+    private final transient AtomicLong latency;
+
+    /**
+     * Sender.
+     */
+    private final transient ScheduledExecutorService sender;
+
+    /**
+     * Ctor.
+     * @param tgm Telegram bot
+     */
+    TelegramQueue(final TelegramBot tgm) {
+        // @checkstyle MagicNumber (1 line)
+        this(tgm, 1000);
+    }
+
+    /**
+     * Ctor.
+     * @param tgm Telegram bot
+     * @param capacity How many messages may wait in the queue
+     */
+    TelegramQueue(final TelegramBot tgm, final int capacity) {
+        this.bot = tgm;
+        this.posted = new ArrayBlockingQueue<>(capacity);
+        this.waiting = new LinkedHashMap<>(0);
+        this.banned = new HashMap<>(0);
+        this.depth = new AtomicInteger();
+        this.delivered = new AtomicLong();
+        this.latency = new AtomicLong();
+        this.sender = Executors.newSingleThreadScheduledExecutor(
+            new VerboseThreads(TelegramQueue.class)
+        );
+    }
+
+    /**
+     * Start sending.
+     */
+    public void start() {
+        this.sender.scheduleWithFixedDelay(
+            new VerboseRunnable(this::flush, true, true),
+            TelegramQueue.WINDOW, TelegramQueue.WINDOW, TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Post a message, to be sent later.
+     * @param chat Chat ID
+     * @param text Text in Markdown
+     */
+    public void post(final String chat, final String text) {
+        if (this.posted.offer(new TelegramQueue.Message(chat, text))) {
+            this.depth.incrementAndGet();
+        } else {
+            Logger.warn(
+                this, "The queue is full, the message to %s is lost", chat
+            );
+        }
+    }
+
+    /**
+     * How many messages are waiting to be delivered.
+     * @return Depth of the queue
+     */
+    public int depth() {
+        return this.depth.get();
+    }
+
+    /**
+     * Average time from posting to delivery.
+     * @return Latency, in msec
+     */
+    public long latency() {
+        return this.latency.get() / Math.max(this.delivered.get(), 1L);
+    }
+
+    @Override
+    public String toString() {
+        return Logger.format(
+            "%d waiting, %d delivered in %[ms]s on average",
+            this.depth(), this.delivered.get(), this.latency()
+        );
+    }
+
+    /**
+     * Deliver what is still in the queue and stop.
+     *
+     * <p>Messages are flushed right away, without waiting for the
+     * next window, and the ones Telegram asked to hold back with
+     * "429 Too Many Requests" are sent again when it allows, as long
+     * as this happens within {@link #AWAIT}. Whatever is left after
+     * that is lost.</p>
+     */
+    @Override
+    public void close() {
+        final long deadline = System.currentTimeMillis() + TelegramQueue.AWAIT;
+        try {
+            while (this.depth() > 0) {
+                this.sender.submit(this::flush).get();
+                final long left = deadline - System.currentTimeMillis();
+                if (this.depth() == 0 || left <= 0L) {
+                    break;
+                }
+                TimeUnit.MILLISECONDS.sleep(
+                    Math.min(left, TelegramQueue.PAUSE)
+                );
+            }
+            this.sender.shutdown();
+            if (!this.sender.awaitTermination(1L, TimeUnit.MINUTES)) {
+                this.sender.shutdownNow();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (final ExecutionException ex) {
+            throw new IllegalStateException(ex);
+        }
+        if (this.depth() > 0) {
+            Logger.warn(this, "Closed with %d messages lost", this.depth());
+        }
+    }
+
+    /**
+     * Send what's waiting, chat by chat.
+     */
+    private void flush() {
+        final Collection<TelegramQueue.Message> fresh = new LinkedList<>();
+        this.posted.drainTo(fresh);
+        for (final TelegramQueue.Message msg : fresh) {
+            this.waiting.computeIfAbsent(
+                msg.chat, chat -> new LinkedList<>()
+            ).add(msg);
+        }
+        final long now = System.currentTimeMillis();
+        final Iterator<Map.Entry<String, List<TelegramQueue.Message>>> chats =
+            this.waiting.entrySet().iterator();
+        while (chats.hasNext()) {
+            final Map.Entry<String, List<TelegramQueue.Message>> entry =
+                chats.next();
+            if (this.banned.getOrDefault(entry.getKey(), 0L) > now) {
+                continue;
+            }
+            this.banned.remove(entry.getKey());
+            chats.remove();
+            for (final List<TelegramQueue.Message> batch
+                : TelegramQueue.batches(entry.getValue())) {
+                this.send(entry.getKey(), batch);
+            }
+        }
+        if (!fresh.isEmpty()) {
+            Logger.info(this, "Telegram queue: %s", this);
+        }
+    }
+
+    /**
+     * Send one batch of messages to the chat, as one message.
+     * @param chat Chat ID
+     * @param batch Messages
+     */
+    private void send(final String chat,
+        final List<TelegramQueue.Message> batch) {
+        final StringBuilder text = new StringBuilder(0);
+        for (final TelegramQueue.Message msg : batch) {
+            if (text.length() > 0) {
+                text.append("\n\n");
+            }
+            text.append(msg.text);
+        }
+        try {
+            Throttle.TELEGRAM.acquire();
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        final AtomicBoolean held = new AtomicBoolean(true);
+        final Runnable release = () -> {
+            if (held.compareAndSet(true, false)) {
+                Throttle.TELEGRAM.release();
+            }
+        };
+        try {
+            this.bot.execute(
+                new SendMessage(
+                    chat,
+                    StringUtils.abbreviate(
+                        text.toString(), TelegramQueue.LONGEST
+                    )
+                ).disableWebPagePreview(true).parseMode(ParseMode.Markdown),
+                new Callback<SendMessage, SendResponse>() {
+                    @Override
+                    public void onResponse(final SendMessage req,
+                        final SendResponse rsp) {
+                        release.run();
+                        TelegramQueue.this.sent(chat, batch, rsp);
+                    }
+
+                    @Override
+                    public void onFailure(final SendMessage req,
+                        final IOException ex) {
+                        release.run();
+                        Logger.warn(
+                            TelegramQueue.this,
+                            "Failed to send to %s: %[exception]s", chat, ex
+                        );
+                        TelegramQueue.this.done(batch);
+                    }
+                }
+            );
+        // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final RuntimeException ex) {
+            if (held.compareAndSet(true, false)) {
+                Throttle.TELEGRAM.release();
+                Logger.warn(
+                    this, "Failed to send to %s: %[exception]s", chat, ex
+                );
+                this.done(batch);
+            }
+        }
+    }
+
+    /**
+     * The batch was sent and Telegram responded.
+     * @param chat Chat ID
+     * @param batch Messages
+     * @param rsp The response
+     */
+    private void sent(final String chat,
+        final List<TelegramQueue.Message> batch, final SendResponse rsp) {
+        if (rsp.errorCode() == TelegramQueue.TOO_MANY
+            && rsp.parameters() != null
+            && rsp.parameters().retryAfter() != null) {
+            this.retry(chat, batch, rsp.parameters().retryAfter());
+        } else {
+            if (!rsp.isOk()) {
+                Logger.warn(
+                    this, "Telegram refused to send to %s: %d %s",
+                    chat, rsp.errorCode(), rsp.description()
+                );
+            }
+            final long now = System.currentTimeMillis();
+            for (final TelegramQueue.Message msg : batch) {
+                this.latency.addAndGet(now - msg.time);
+            }
+            this.delivered.addAndGet(batch.size());
+            this.done(batch);
+        }
+    }
+
+    /**
+     * Put the batch back, to be sent again later.
+     * @param chat Chat ID
+     * @param batch Messages
+     * @param seconds How long to wait before sending to this chat
+     */
+    private void retry(final String chat,
+        final List<TelegramQueue.Message> batch, final int seconds) {
+        if (this.sender.isShutdown()) {
+            Logger.warn(
+                this, "Closed, %d messages to %s lost", batch.size(), chat
+            );
+            this.done(batch);
+        } else {
+            Logger.info(
+                this, "Telegram asked to wait for %ds before sending to %s",
+                seconds, chat
+            );
+            this.sender.execute(
+                () -> {
+                    this.banned.put(
+                        chat,
+                        System.currentTimeMillis()
+                            + TimeUnit.SECONDS.toMillis(seconds)
+                    );
+                    this.waiting.computeIfAbsent(
+                        chat, key -> new LinkedList<>()
+                    ).addAll(0, batch);
+                }
+            );
+        }
+    }
+
+    /**
+     * The batch is not in the queue anymore.
+     * @param batch Messages
+     */
+    private void done(final List<TelegramQueue.Message> batch) {
+        this.depth.addAndGet(-batch.size());
+    }
+
+    /**
+     * Split messages into batches, each fitting into one message.
+     * @param msgs Messages to the same chat
+     * @return Batches
+     */
+    private static List<List<TelegramQueue.Message>> batches(
+        final List<TelegramQueue.Message> msgs) {
+        final List<List<TelegramQueue.Message>> batches = new LinkedList<>();
+        List<TelegramQueue.Message> batch = new ArrayList<>(0);
+        int length = 0;
+        for (final TelegramQueue.Message msg : msgs) {
+            if (!batch.isEmpty()
+                && length + msg.text.length() + 2 > TelegramQueue.LONGEST) {
+                batches.add(batch);
+                batch = new ArrayList<>(0);
+                length = 0;
+            }
+            batch.add(msg);
+            length += msg.text.length() + 2;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    /**
+     * One message.
+     *
+     * @since 1.0
+     */
+    private static final class Message {
+
+        /**
+         * Chat ID.
+         */
+        private final String chat;
+
+        /**
+         * Text.
+         */
+        private final String text;
+
+        /**
+         * When it was posted, in msec.
+         */
+        private final long time;
+
+        /**
+         * Ctor.
+         * @param cht Chat ID
+         * @param txt Text
+         */
+        Message(final String cht, final String txt) {
+            this.chat = cht;
+            this.text = txt;
+            this.time = System.currentTimeMillis();
+        }
+    }
+
+}
@@ -29,37 +29,233 @@
  */
 package io.wring.agents;
 
-import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Layout;
+import org.apache.log4j.Logger;
 import org.apache.log4j.PatternLayout;
-import org.apache.log4j.WriterAppender;
+import org.apache.log4j.spi.Filter;
 import org.apache.log4j.spi.LoggingEvent;
 
 /**
- * Thread thread appender.
+ * Thread appender.
+ *
+ * <p>One instance is attached to the root logger for good and
+ * sends every event to the buffer of the current thread, if the
+ * thread is capturing its log now, see {@link #start()}. The buffer
+ * doesn't grow over its limit: all lines after it are counted and
+ * skipped. A task that a thread gives to another thread can
+ * still write into its buffer, see {@link #capturing(Callable)}.</p>
  *
  * @since 1.0
  */
-final class ThreadAppender extends WriterAppender {
+public final class ThreadAppender extends AppenderSkeleton {
+
+    /**
+     * Logs of all pipes, each captured in its own thread,
+     * up to 64Kb per pipe.
+     */
+    public static final ThreadAppender PIPES = new ThreadAppender(
+        // @checkstyle MagicNumber (1 line)
+        new PatternLayout("%t %p %m\n"), 1 << 16
+    ).attach();
+
+    /**
+     * Buffers of threads capturing their logs now.
+     */
+    private final transient ThreadLocal<ThreadAppender.Buffer> buffers;
 
     /**
-     * The thread to listen to.
+     * Maximum length of one buffer, in characters.
      */
-    private final transient Thread thread;
+    private final transient int limit;
 
     /**
      * Ctor.
      * @param fmt Layout
-     * @param output Output stream
+     * @param max Maximum length of one buffer, in characters
+     */
+    ThreadAppender(final Layout fmt, final int max) {
+        super();
+        this.setLayout(fmt);
+        this.buffers = new ThreadLocal<>();
+        this.limit = max;
+    }
+
+    /**
+     * Attach it to the root logger.
+     * @return This appender
+     */
+    public ThreadAppender attach() {
+        Logger.getRootLogger().addAppender(this);
+        return this;
+    }
+
+    /**
+     * Start capturing the log of the current thread.
+     */
+    public void start() {
+        this.buffers.set(new ThreadAppender.Buffer(this.limit));
+    }
+
+    /**
+     * Stop capturing the log of the current thread.
+     * @return Everything captured since {@link #start()}
+     */
+    public String stop() {
+        final ThreadAppender.Buffer buffer = this.buffers.get();
+        this.buffers.remove();
+        String text = "";
+        if (buffer != null) {
+            text = buffer.toString();
+        }
+        return text;
+    }
+
+    /**
+     * Make a task that writes its log into the buffer of the current
+     * thread, in whatever thread it runs.
+     * @param task The task
+     * @param <T> Type of result
+     * @return Task capturing the log
+     */
+    public <T> Callable<T> capturing(final Callable<T> task) {
+        final ThreadAppender.Buffer buffer = this.buffers.get();
+        return () -> {
+            final ThreadAppender.Buffer before = this.buffers.get();
+            this.buffers.set(buffer);
+            try {
+                return task.call();
+            } finally {
+                this.buffers.set(before);
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>It's not synchronized, unlike the one in the parent class,
+     * because every thread writes only into its own buffer, or into
+     * the buffer given by {@link #capturing(Callable)}, which is
+     * synchronized. The threshold and the filters are checked the same
+     * way the parent class checks them.</p>
      */
-    ThreadAppender(final PatternLayout fmt, final OutputStream output) {
-        super(fmt, output);
-        this.thread = Thread.currentThread();
+    @Override
+    public void doAppend(final LoggingEvent event) {
+        if (!this.closed && this.isAsSevereAsThreshold(event.getLevel())
+            && ThreadAppender.accepts(this.getFilter(), event)) {
+            this.append(event);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+    }
+
+    @Override
+    public boolean requiresLayout() {
+        return true;
     }
 
     @Override
-    public void append(final LoggingEvent event) {
-        if (Thread.currentThread().equals(this.thread)) {
-            super.append(event);
+    protected void append(final LoggingEvent event) {
+        final ThreadAppender.Buffer buffer = this.buffers.get();
+        if (buffer != null) {
+            final String text;
+            synchronized (this.layout) {
+                text = this.layout.format(event);
+            }
+            buffer.add(text);
+            if (this.layout.ignoresThrowable()) {
+                final String[] lines = event.getThrowableStrRep();
+                if (lines != null) {
+                    for (final String line : lines) {
+                        buffer.add(String.format("%s\n", line));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Do the filters let the event through?
+     * @param first The first filter in the chain, or NULL
+     * @param event The event
+     * @return TRUE if it has to be appended
+     */
+    private static boolean accepts(final Filter first,
+        final LoggingEvent event) {
+        boolean accepts = true;
+        Filter filter = first;
+        while (filter != null) {
+            final int decision = filter.decide(event);
+            if (decision == Filter.DENY) {
+                accepts = false;
+                break;
+            }
+            if (decision == Filter.ACCEPT) {
+                break;
+            }
+            filter = filter.getNext();
+        }
+        return accepts;
+    }
+
+    /**
+     * Buffer of one thread.
+     *
+     * @since 1.0
+     */
+    private static final class Buffer {
+
+        /**
+         * Text.
+         */
+        private final transient StringBuilder text;
+
+        /**
+         * Maximum length.
+         */
+        private final transient int max;
+
+        /**
+         * Lines skipped.
+         */
+        private transient int skipped;
+
+        /**
+         * Ctor.
+         * @param lmt Maximum length
+         */
+        Buffer(final int lmt) {
+            this.text = new StringBuilder(0);
+            this.max = lmt;
+        }
+
+        /**
+         * Add a line, if there is still room for it.
+         * @param line The line
+         */
+        public synchronized void add(final String line) {
+            if (this.skipped == 0
+                && this.text.length() + line.length() <= this.max) {
+                this.text.append(line);
+            } else {
+                ++this.skipped;
+            }
+        }
+
+        @Override
+        public synchronized String toString() {
+            String out = this.text.toString();
+            if (this.skipped > 0) {
+                out = String.format(
+                    "%s... %d more line(s) skipped\n", out, this.skipped
+                );
+            }
+            return out;
         }
     }
 
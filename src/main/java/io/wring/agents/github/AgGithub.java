@@ -37,15 +37,28 @@ import com.jcabi.github.RtPagination;
 import com.jcabi.http.Request;
 import com.jcabi.http.response.RestResponse;
 import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseThreads;
 import io.wring.agents.Agent;
+import io.wring.agents.ThreadAppender;
 import io.wring.model.Base;
 import io.wring.model.Events;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.HttpURLConnection;
+import java.net.URI;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import javax.json.JsonObject;
 import org.apache.commons.lang3.time.DateFormatUtils;
 import org.apache.commons.lang3.time.DateUtils;
@@ -53,11 +66,32 @@ import org.apache.commons.lang3.time.DateUtils;
 /**
  * GitHub agent.
  *
+ * <p>Notifications are read since the previous successful run, which
+ * is remembered in the vault, not since a fixed window of time before
+ * now. Thus, nothing is lost when the pipe backs off and runs rarely,
+ * or when a run fails and the marker is not saved.</p>
+ *
  * @since 1.0
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
 public final class AgGithub implements Agent {
 
+    /**
+     * GitHub users, by tokens, shared by all pipes.
+     */
+    private static final Identities IDENTITIES =
+        new Identities(TimeUnit.HOURS.toMillis(1L));
+
+    /**
+     * Threads to push subjects by, shared by all pipes; their number
+     * is set by the {@code wring.github.parallel} system property.
+     */
+    private static final ExecutorService THREADS =
+        Executors.newFixedThreadPool(
+            Integer.getInteger("wring.github.parallel", 32),
+            new VerboseThreads(AgGithub.class)
+        );
+
     /**
      * Base.
      */
@@ -68,14 +102,30 @@ public final class AgGithub implements Agent {
      */
     private final transient JsonObject config;
 
+    /**
+     * GitHub API entry point.
+     */
+    private final transient URI api;
+
     /**
      * Ctor.
      * @param bse Base
      * @param json JSON config
      */
     public AgGithub(final Base bse, final JsonObject json) {
+        this(bse, json, URI.create("https://api.github.com"));
+    }
+
+    /**
+     * Ctor.
+     * @param bse Base
+     * @param json JSON config
+     * @param uri GitHub API entry point
+     */
+    AgGithub(final Base bse, final JsonObject json, final URI uri) {
         this.base = bse;
         this.config = json;
+        this.api = uri;
     }
 
     @Override
@@ -85,11 +135,21 @@ public final class AgGithub implements Agent {
 
     @Override
     public String push(final Events events) throws IOException {
-        final Github github = new RtGithub(this.config.getString("token"));
-        final String since = DateFormatUtils.formatUTC(
+        final String token = this.config.getString("token");
+        final Github github = new RtGithub(
+            new RtGithub(token).entry()
+                .uri().set(this.api).back()
+                .through(ThrottledWire.class)
+                .through(BudgetWire.class)
+                .through(ConditionalWire.class)
+        );
+        final Identity self = AgGithub.IDENTITIES.identity(token, github);
+        final String start = DateFormatUtils.formatUTC(
             DateUtils.addMinutes(new Date(), -Tv.THREE),
             "yyyy-MM-dd'T'HH:mm:ss'Z'"
         );
+        final String mark = String.format("@%s#notifications", self.login());
+        final String since = this.base.vault().value(mark).orElse(start);
         final Request req = github.entry()
             .uri().path("/notifications").back();
         final Iterable<JsonObject> list = new RtPagination<>(
@@ -99,46 +159,199 @@ public final class AgGithub implements Agent {
                 .back(),
             RtPagination.COPYING
         );
-        final Collection<String> done = new LinkedList<>();
-        for (final JsonObject event : AgGithub.safe(list)) {
+        final Iterable<JsonObject> safe;
+        try {
+            safe = AgGithub.safe(list);
+        } catch (final Agent.UserException ex) {
+            AgGithub.IDENTITIES.invalidate(token);
+            throw ex;
+        }
+        final Map<String, Subject> subjects = new LinkedHashMap<>(0);
+        for (final JsonObject event : safe) {
             final String reason = event.getString("reason");
             if (!"mention".equals(reason)) {
                 continue;
             }
-            this.push(github, event, events);
-            done.add(event.getString("id"));
+            subjects.put(event.getString("id"), this.subject(event));
+        }
+        final Map<String, String> markers;
+        if (subjects.isEmpty()) {
+            markers = Collections.emptyMap();
+        } else {
+            markers = this.base.vault().values(
+                subjects.values().stream()
+                    .map(Subject::key)
+                    .collect(Collectors.toList())
+            );
+        }
+        final Collection<String> done = this.push(
+            github, self, this.urgent(token, subjects), markers, events
+        );
+        if (done.size() < subjects.size()) {
+            throw new Agent.PostponedException(
+                String.format(
+                    "%d of %d GitHub events deferred, the rate limit is tight",
+                    subjects.size() - done.size(), subjects.size()
+                ),
+                BudgetWire.budget(token).reset()
+            );
         }
         req.uri()
-            .queryParam("last_read_at", since).back()
+            .queryParam("last_read_at", start).back()
             .method(Request.PUT)
             .body().set("{}").back()
             .fetch()
             .as(RestResponse.class)
             .assertStatus(HttpURLConnection.HTTP_RESET);
+        this.base.vault().save(mark, Optional.of(start));
         if (!done.isEmpty()) {
             Logger.info(
                 this, "%d GitHub events for @%s processed: %s",
-                done.size(), github.users().self().login(), done
+                done.size(), self.login(), done
             );
         }
         return String.format(
             "%d events for @%s at %s",
-            done.size(), github.users().self().login(),
+            done.size(), self.login(),
             DateFormatUtils.formatUTC(new Date(), "yyyy-MM-dd HH:mm:ss")
         );
     }
 
     /**
-     * List events.
+     * Push all subjects in parallel and post their events in order.
+     *
+     * <p>Events of the subjects that succeed are posted even if some
+     * others fail, because their markers are already saved in the vault,
+     * then the first failure is thrown.</p>
+     *
+     * @param github Github client
+     * @param self The user we work for
+     * @param subjects Subjects, by IDs of notifications, in order
+     * @param markers Markers of the subjects in the vault, by their keys
+     * @param events Events
+     * @return IDs of notifications processed
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (6 lines)
+     */
+    private Collection<String> push(final Github github, final Identity self,
+        final Map<String, Subject> subjects, final Map<String, String> markers,
+        final Events events) throws IOException {
+        final Collection<String> done = new LinkedList<>();
+        if (!subjects.isEmpty()) {
+            final Map<String, Future<RecordedEvents>> futures =
+                new LinkedHashMap<>(subjects.size());
+            try {
+                for (final Map.Entry<String, Subject> subject
+                    : subjects.entrySet()) {
+                    futures.put(
+                        subject.getKey(),
+                        AgGithub.THREADS.submit(
+                            ThreadAppender.PIPES.capturing(
+                                () -> {
+                                    final RecordedEvents recorded =
+                                        new RecordedEvents();
+                                    subject.getValue().push(
+                                        github, self, markers, recorded
+                                    );
+                                    return recorded;
+                                }
+                            )
+                        )
+                    );
+                }
+                IOException error = null;
+                for (final Map.Entry<String, Future<RecordedEvents>> future
+                    : futures.entrySet()) {
+                    try {
+                        AgGithub.result(future.getValue()).replay(events);
+                        done.add(future.getKey());
+                    } catch (final IOException ex) {
+                        if (error == null) {
+                            error = ex;
+                        }
+                    }
+                }
+                if (error != null) {
+                    throw error;
+                }
+            } finally {
+                for (final Future<RecordedEvents> future : futures.values()) {
+                    future.cancel(true);
+                }
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Subjects that can't wait: all of them, unless the rate limit
+     * budget of the token is tight, when commits are left for later.
+     * @param token GitHub token
+     * @param subjects Subjects, by IDs of notifications, in order
+     * @return Subjects to push now
+     */
+    private Map<String, Subject> urgent(final String token,
+        final Map<String, Subject> subjects) {
+        final Map<String, Subject> urgent;
+        if (BudgetWire.budget(token).tight(System.currentTimeMillis())) {
+            urgent = new LinkedHashMap<>(subjects.size());
+            subjects.forEach(
+                (key, subject) -> {
+                    if (subject.urgent()) {
+                        urgent.put(key, subject);
+                    }
+                }
+            );
+        } else {
+            urgent = subjects;
+        }
+        return urgent;
+    }
+
+    /**
+     * Wait for the subject to be pushed.
+     * @param future The future
+     * @return Events it posted
+     * @throws IOException If it failed
+     */
+    private static RecordedEvents result(final Future<RecordedEvents> future)
+        throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getLocalizedMessage());
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * List events, all pages of them.
      * @param list List of them
-     * @return Iterator
+     * @return Events
      * @throws Agent.UserException If fails
+     * @throws Agent.PostponedException If the rate limit is over
      */
     private static Iterable<JsonObject> safe(final Iterable<JsonObject> list)
-        throws Agent.UserException {
-        final Iterator<JsonObject> objects = list.iterator();
+        throws Agent.UserException, Agent.PostponedException {
+        final Collection<JsonObject> objects = new LinkedList<>();
         try {
-            objects.hasNext();
+            for (final JsonObject object : list) {
+                objects.add(object);
+            }
+        } catch (final IllegalStateException ex) {
+            throw BudgetWire.unwrap(ex);
         } catch (final AssertionError ex) {
             throw new Agent.UserException(
                 String.format(
@@ -148,26 +361,22 @@ public final class AgGithub implements Agent {
                 ex
             );
         }
-        return () -> objects;
+        return objects;
     }
 
     /**
-     * Post an event.
-     * @param github Github client
+     * Make a subject of a notification event.
      * @param json JSON object of the notification event
-     * @param events Events
-     * @throws IOException If fails
+     * @return The subject
      */
-    private void push(final Github github, final JsonObject json,
-        final Events events)
-        throws IOException {
-        new Subject(
+    private Subject subject(final JsonObject json) {
+        return new Subject(
             this.base,
             new Coordinates.Simple(
                 json.getJsonObject("repository").getString("full_name")
             ),
             json.getJsonObject("subject")
-        ).push(github, events);
+        );
     }
 
 }
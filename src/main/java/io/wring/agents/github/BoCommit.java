@@ -39,7 +39,6 @@ import io.wring.model.Events;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.Optional;
-import java.util.regex.Pattern;
 import javax.json.JsonObject;
 import org.apache.commons.text.StringEscapeUtils;
 
@@ -56,19 +55,36 @@ final class BoCommit implements Body {
      */
     private final transient Base base;
 
+    /**
+     * The user we work for.
+     */
+    private final transient Identity self;
+
     /**
      * Issue.
      */
     private final transient RepoCommit.Smart commit;
 
+    /**
+     * The marker of the commit in the vault, read before, or empty.
+     */
+    private final transient Optional<String> before;
+
     /**
      * Ctor.
      * @param bse Base
+     * @param idt The user we work for
      * @param subj Issue
+     * @param mrk The marker of the commit in the vault, read before,
+     *  or empty if it's not there
+     * @checkstyle ParameterNumberCheck (3 lines)
      */
-    BoCommit(final Base bse, final RepoCommit.Smart subj) {
+    BoCommit(final Base bse, final Identity idt, final RepoCommit.Smart subj,
+        final Optional<String> mrk) {
         this.base = bse;
+        this.self = idt;
         this.commit = subj;
+        this.before = mrk;
     }
 
     @Override
@@ -116,19 +132,11 @@ final class BoCommit implements Body {
                 .back(),
             object -> object
         ).iterator();
-        final String self = this.commit.repo().github().users().self().login();
         int seen = this.seen();
         Logger.info(
             this, "Last seen comment in %s is #%d",
             this.commit.sha(), seen
         );
-        final Pattern ptn = Pattern.compile(
-            String.format(
-                ".*(?<![a-zA -Z0-9-])%s(?![a-zA-Z0-9-]).*",
-                Pattern.quote(String.format("@%s", self))
-            ),
-            Pattern.CASE_INSENSITIVE | Pattern.DOTALL | Pattern.MULTILINE
-        );
         final StringBuilder body = new StringBuilder();
         while (comments.hasNext()) {
             final JsonObject comment = comments.next();
@@ -138,7 +146,7 @@ final class BoCommit implements Body {
             }
             final String author = comment.getJsonObject("user")
                 .getString("login");
-            if (author.equals(self)) {
+            if (author.equals(this.self.login())) {
                 Logger.info(
                     this,
                     "%s/%d ignored since you're the author",
@@ -147,7 +155,7 @@ final class BoCommit implements Body {
                 continue;
             }
             final String cmt = comment.getString("body");
-            if (ptn.matcher(cmt).matches()) {
+            if (this.self.mentioned(cmt)) {
                 body.append('@')
                     .append(author)
                     .append(" at [")
@@ -185,13 +193,11 @@ final class BoCommit implements Body {
     /**
      * Get the latest seen comment number in the issue.
      * @return Comment number of zero
-     * @throws IOException If fails
      */
-    private int seen() throws IOException {
-        final Optional<String> before = this.base.vault().value(this.key());
+    private int seen() {
         final int seen;
-        if (before.isPresent()) {
-            seen = Integer.parseInt(before.get());
+        if (this.before.isPresent()) {
+            seen = Integer.parseInt(this.before.get());
         } else {
             seen = 0;
         }
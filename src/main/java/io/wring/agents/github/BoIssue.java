@@ -29,19 +29,23 @@
  */
 package io.wring.agents.github;
 
-import com.jcabi.github.Bulk;
-import com.jcabi.github.Comment;
 import com.jcabi.github.Coordinates;
+import com.jcabi.github.Github;
 import com.jcabi.github.Issue;
-import com.jcabi.github.Smarts;
+import com.jcabi.github.RtPagination;
+import com.jcabi.http.Request;
 import com.jcabi.log.Logger;
 import io.wring.agents.Printable;
 import io.wring.model.Base;
 import io.wring.model.Events;
 import java.io.IOException;
-import java.util.Iterator;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedList;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import javax.json.JsonObject;
 import org.apache.commons.text.StringEscapeUtils;
 
 /**
@@ -57,19 +61,36 @@ final class BoIssue implements Body {
      */
     private final transient Base base;
 
+    /**
+     * The user we work for.
+     */
+    private final transient Identity self;
+
     /**
      * Issue.
      */
     private final transient Issue.Smart issue;
 
+    /**
+     * The marker of the issue in the vault, read before, or empty.
+     */
+    private final transient Optional<String> before;
+
     /**
      * Ctor.
      * @param bse Base
+     * @param idt The user we work for
      * @param subj Issue
+     * @param mrk The marker of the issue in the vault, read before,
+     *  or empty if it's not there
+     * @checkstyle ParameterNumberCheck (3 lines)
      */
-    BoIssue(final Base bse, final Issue.Smart subj) {
+    BoIssue(final Base bse, final Identity idt, final Issue.Smart subj,
+        final Optional<String> mrk) {
         this.base = bse;
+        this.self = idt;
         this.issue = subj;
+        this.before = mrk;
     }
 
     @Override
@@ -98,107 +119,132 @@ final class BoIssue implements Body {
 
     /**
      * Collect all important texts from the issue.
+     *
+     * <p>Only the comments updated after the latest one seen are fetched
+     * from GitHub, using its "since" parameter. The marker in the vault
+     * is the number of that comment and the time it was created, or just
+     * the number, if it was saved before the time was there.</p>
+     *
      * @return Body text
      * @throws IOException If fails
      * @checkstyle ExecutableStatementCountCheck (100 lines)
      */
     @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
     public String text() throws IOException {
-        final Iterator<Comment.Smart> comments = new Smarts<Comment.Smart>(
-            new Bulk<>(this.issue.comments().iterate())
-        ).iterator();
-        final String self = this.issue.repo().github().users().self().login();
-        final Pattern ptn = Pattern.compile(
-            String.format(
-                ".*(?<![a-zA -Z0-9-])%s(?![a-zA-Z0-9-]).*",
-                Pattern.quote(String.format("@%s", self))
-            ),
-            Pattern.CASE_INSENSITIVE | Pattern.DOTALL | Pattern.MULTILINE
-        );
-        int seen = this.seen();
+        final Coordinates coords = this.issue.repo().coordinates();
+        final String[] marker = this.marker();
+        long seen = Long.parseLong(marker[0]);
+        String since = marker[1];
         Logger.info(
-            this, "Last seen comment in %s#%d is #%d",
-            this.issue.repo().coordinates(), this.issue.number(), seen
+            this, "Last seen comment in %s#%d is #%d, created at %s",
+            coords, this.issue.number(), seen, since
         );
-        final StringBuilder body = new StringBuilder();
-        while (comments.hasNext()) {
-            final Comment.Smart comment = comments.next();
-            if (comment.number() <= seen) {
-                continue;
+        Request req = this.issue.repo().github().entry()
+            .uri()
+            .path("repos")
+            .path(coords.user())
+            .path(coords.repo())
+            .path("issues")
+            .path(Integer.toString(this.issue.number()))
+            .path("comments")
+            .back();
+        if (!since.isEmpty()) {
+            req = req.uri().queryParam("since", since).back();
+        }
+        final Collection<JsonObject> comments = new LinkedList<>();
+        try {
+            for (final JsonObject json : new RtPagination<>(req, obj -> obj)) {
+                comments.add(json);
             }
-            // @checkstyle MagicNumber (1 line)
-            if (comment.number() < 188_060_467) {
-                Logger.info(
-                    this,
-                    "%s#%d/%d ignored since too old",
-                    this.issue.repo().coordinates(), this.issue.number(),
-                    comment.number()
-                );
+        } catch (final IllegalStateException ex) {
+            throw BudgetWire.unwrap(ex);
+        }
+        final StringBuilder body = new StringBuilder();
+        for (final JsonObject comment : comments) {
+            final long number = comment.getJsonNumber("id").longValue();
+            if (number <= seen) {
                 continue;
             }
-            if (comment.author().login().equals(self)) {
+            final String author = comment.getJsonObject("user")
+                .getString("login");
+            final String cmt = comment.getString("body");
+            if (author.equals(this.self.login())) {
                 Logger.info(
                     this,
                     "%s#%d/%d ignored since you're the author",
-                    this.issue.repo().coordinates(), this.issue.number(),
-                    comment.number()
+                    coords, this.issue.number(), number
                 );
-                continue;
-            }
-            final String cmt = comment.body();
-            if (ptn.matcher(cmt).matches()) {
+            } else if (this.self.mentioned(cmt)) {
                 body.append('@')
-                    .append(comment.author().login())
+                    .append(author)
                     .append(" at [")
-                    .append(String.format("%te-%<tb-%<tY", comment.createdAt()))
+                    .append(
+                        String.format(
+                            "%te-%<tb-%<tY",
+                            BoIssue.date(comment.getString("created_at"))
+                        )
+                    )
                     .append("](")
-                    .append(this.issue.htmlUrl())
-                    .append("#issuecomment-")
-                    .append(comment.number())
+                    .append(comment.getString("html_url"))
                     .append("): ")
                     .append(StringEscapeUtils.escapeHtml4(cmt))
                     .append("\n\n");
                 Logger.info(
                     this,
                     "%s#%d/%d accepted: %s",
-                    this.issue.repo().coordinates(), this.issue.number(),
-                    comment.number(), new Printable(cmt)
+                    coords, this.issue.number(), number, new Printable(cmt)
                 );
             } else {
                 Logger.info(
                     this,
                     "%s#%d/%d ignored: %s",
-                    this.issue.repo().coordinates(), this.issue.number(),
-                    comment.number(), new Printable(cmt)
+                    coords, this.issue.number(), number, new Printable(cmt)
                 );
             }
-            seen = comment.number();
+            seen = number;
+            since = comment.getString("created_at");
         }
         this.base.vault().save(
             this.key(),
-            Optional.of(Integer.toString(seen))
+            Optional.of(String.format("%d %s", seen, since).trim())
         );
         Logger.info(
             this, "Seen comment set to %d for %s#%d",
-            seen, this.issue.repo().coordinates(), this.issue.number()
+            seen, coords, this.issue.number()
         );
         return body.toString();
     }
 
     /**
-     * Get the latest seen comment number in the issue.
-     * @return Comment number of zero
-     * @throws IOException If fails
+     * Get the latest seen comment in the issue.
+     * @return Comment number (or zero) and the time it was created
+     *  (or empty string)
      */
-    private int seen() throws IOException {
-        final Optional<String> before = this.base.vault().value(this.key());
-        final int seen;
-        if (before.isPresent()) {
-            seen = Integer.parseInt(before.get());
+    private String[] marker() {
+        final String[] marker;
+        if (this.before.isPresent()) {
+            marker = Arrays.copyOf(this.before.get().split(" ", 2), 2);
+            if (marker[1] == null) {
+                marker[1] = "";
+            }
         } else {
-            seen = 0;
+            marker = new String[] {"0", ""};
+        }
+        return marker;
+    }
+
+    /**
+     * Parse GitHub time.
+     * @param text The time, as GitHub formats it
+     * @return Date
+     * @throws IOException If fails
+     */
+    private static Date date(final String text) throws IOException {
+        try {
+            return new Github.Time(text).date();
+        } catch (final ParseException ex) {
+            throw new IOException(ex);
         }
-        return seen;
     }
 
     /**
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents.github;
+
+import com.jcabi.http.Response;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit budget of one GitHub token.
+ *
+ * <p>It is updated from the {@code X-RateLimit-*} headers of every
+ * response. The budget is tight when less than a tenth of the limit
+ * is left till the reset; then requests are paced, so that what is left
+ * lasts till the reset.</p>
+ *
+ * @since 1.0
+ */
+final class Budget {
+
+    /**
+     * Longest pause between requests, in milliseconds.
+     */
+    private static final long PAUSE = TimeUnit.SECONDS.toMillis(1L);
+
+    /**
+     * Requests allowed per window, or zero if not known yet.
+     */
+    private transient int limit;
+
+    /**
+     * Requests left till the reset.
+     */
+    private transient int left;
+
+    /**
+     * When the window resets, in milliseconds.
+     */
+    private transient long reset;
+
+    /**
+     * Update it from the response.
+     * @param response Response from GitHub
+     */
+    public synchronized void update(final Response response) {
+        final Optional<String> remaining =
+            ConditionalWire.header(response, "X-RateLimit-Remaining");
+        if (remaining.isPresent()) {
+            this.left = Integer.parseInt(remaining.get());
+            this.limit = ConditionalWire.header(response, "X-RateLimit-Limit")
+                .map(Integer::parseInt)
+                .orElse(this.limit);
+            this.reset = ConditionalWire.header(response, "X-RateLimit-Reset")
+                .map(Long::parseLong)
+                .map(TimeUnit.SECONDS::toMillis)
+                .orElse(this.reset);
+        }
+    }
+
+    /**
+     * Is nothing left till the reset?
+     * @param now Current time in milliseconds
+     * @return TRUE if exhausted
+     */
+    public synchronized boolean exhausted(final long now) {
+        return this.limit > 0 && now < this.reset && this.left <= 0;
+    }
+
+    /**
+     * Is less than a tenth of the limit left till the reset?
+     * @param now Current time in milliseconds
+     * @return TRUE if tight
+     */
+    public synchronized boolean tight(final long now) {
+        return this.limit > 0 && now < this.reset
+            && this.left < Math.max(this.limit / 10, 1);
+    }
+
+    /**
+     * How long to wait before the next request.
+     * @param now Current time in milliseconds
+     * @return Pause in milliseconds
+     */
+    public synchronized long pause(final long now) {
+        long pause = 0L;
+        if (this.tight(now)) {
+            pause = Math.min(
+                (this.reset - now) / Math.max(this.left, 1), Budget.PAUSE
+            );
+        }
+        return pause;
+    }
+
+    /**
+     * When the window resets.
+     * @return Time in milliseconds
+     */
+    public synchronized long reset() {
+        return this.reset;
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents.github;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.log.Logger;
+import io.wring.agents.Agent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wire that keeps GitHub requests of each token within its rate limit.
+ *
+ * <p>Requests are paced when the {@link Budget} of the token is tight,
+ * and are not sent at all when it's exhausted: the push is postponed
+ * till the reset, see {@link Agent.PostponedException}. The same happens
+ * when GitHub answers with 403 or 429 because of its primary
+ * or secondary rate limit.</p>
+ *
+ * @since 1.0
+ */
+public final class BudgetWire implements Wire {
+
+    /**
+     * Budgets, by values of the Authorization header.
+     */
+    private static final ConcurrentMap<String, Budget> BUDGETS =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * HTTP status of "Too Many Requests".
+     */
+    private static final int TOO_MANY = 429;
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Ctor.
+     * @param wire Original wire
+     */
+    public BudgetWire(final Wire wire) {
+        this.origin = wire;
+    }
+
+    /**
+     * Budget of the token.
+     * @param token GitHub token
+     * @return Budget
+     */
+    static Budget budget(final String token) {
+        return BudgetWire.BUDGETS.computeIfAbsent(
+            String.format("token %s", token), key -> new Budget()
+        );
+    }
+
+    /**
+     * Find the postponement inside an error of a paginator.
+     *
+     * <p>{@link com.jcabi.github.RtPagination} can't throw
+     * {@link java.io.IOException} from its iterator and wraps it into
+     * {@link IllegalStateException}, so that the postponement this wire
+     * throws has to be taken out of it.</p>
+     *
+     * @param error The error thrown while iterating
+     * @return The same error, if there is no postponement inside
+     * @throws Agent.PostponedException If it is inside
+     */
+    static IllegalStateException unwrap(final IllegalStateException error)
+        throws Agent.PostponedException {
+        if (error.getCause() instanceof Agent.PostponedException) {
+            throw (Agent.PostponedException) error.getCause();
+        }
+        return error;
+    }
+
+    // @checkstyle ParameterNumberCheck (3 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content, final int connect, final int read)
+        throws IOException {
+        String auth = "";
+        for (final Map.Entry<String, String> header : headers) {
+            if ("Authorization".equalsIgnoreCase(header.getKey())) {
+                auth = header.getValue();
+            }
+        }
+        final Budget budget = BudgetWire.BUDGETS.computeIfAbsent(
+            auth, key -> new Budget()
+        );
+        final long now = System.currentTimeMillis();
+        if (budget.exhausted(now)) {
+            throw new Agent.PostponedException(
+                "GitHub rate limit is exhausted", budget.reset()
+            );
+        }
+        BudgetWire.sleep(budget.pause(now));
+        final Response response = this.origin.send(
+            req, home, method, headers, content, connect, read
+        );
+        budget.update(response);
+        final int status = response.status();
+        if (status == BudgetWire.TOO_MANY
+            || status == HttpURLConnection.HTTP_FORBIDDEN) {
+            final Optional<String> retry =
+                ConditionalWire.header(response, "Retry-After");
+            if (retry.isPresent()) {
+                throw new Agent.PostponedException(
+                    "GitHub secondary rate limit is hit",
+                    System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(
+                        Long.parseLong(retry.get())
+                    )
+                );
+            }
+            if (budget.exhausted(System.currentTimeMillis())) {
+                throw new Agent.PostponedException(
+                    "GitHub rate limit is exhausted", budget.reset()
+                );
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Wait a bit.
+     * @param msec How long, in milliseconds
+     * @throws IOException If interrupted
+     */
+    private static void sleep(final long msec) throws IOException {
+        if (msec > 0L) {
+            Logger.debug(BudgetWire.class, "Pacing for %[ms]s", msec);
+            try {
+                TimeUnit.MILLISECONDS.sleep(msec);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(ex.getLocalizedMessage());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents.github;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wire that makes conditional GET requests to GitHub.
+ *
+ * <p>Responses with an {@code ETag} or {@code Last-Modified} header are
+ * kept in memory, by token and URI, and the next request to the same URI
+ * carries {@code If-None-Match} or {@code If-Modified-Since}. When GitHub
+ * answers with 304, the response kept is returned instead, and
+ * the request doesn't count against the rate limit. When GitHub
+ * sends {@code X-Poll-Interval}, the same URI is not requested again until
+ * the interval is over. The {@code since} query parameter is not a part of
+ * the URI here, since it changes on every run of a pipe, while
+ * the ETag tells whether the response is the same anyway. The number of
+ * responses kept is configured by {@code wring.github.cache} system
+ * property.</p>
+ *
+ * @since 1.0
+ */
+public final class ConditionalWire implements Wire {
+
+    /**
+     * Responses saved, by tokens and URIs, the least recently used first.
+     */
+    private static final Map<String, ConditionalWire.Saved> SAVED =
+        ConditionalWire.lru(Integer.getInteger("wring.github.cache", 1000));
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Ctor.
+     * @param wire Original wire
+     */
+    public ConditionalWire(final Wire wire) {
+        this.origin = wire;
+    }
+
+    // @checkstyle ParameterNumberCheck (3 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content, final int connect, final int read)
+        throws IOException {
+        final Response response;
+        if (Request.GET.equals(method)) {
+            final String key = ConditionalWire.key(home, headers);
+            final ConditionalWire.Saved saved;
+            synchronized (ConditionalWire.SAVED) {
+                saved = ConditionalWire.SAVED.get(key);
+            }
+            final long now = System.currentTimeMillis();
+            if (saved != null && now < saved.until()) {
+                response = saved.response();
+            } else {
+                response = this.fetch(
+                    key, saved, now,
+                    req, home, method, headers, content, connect, read
+                );
+            }
+        } else {
+            response = this.origin.send(
+                req, home, method, headers, content, connect, read
+            );
+        }
+        return response;
+    }
+
+    /**
+     * Fetch the response, validating the one saved before, if any.
+     * @param key Key of the response
+     * @param saved Response saved before, or NULL
+     * @param now Current time in milliseconds
+     * @param req Request
+     * @param home URI to fetch
+     * @param method HTTP method
+     * @param headers Headers
+     * @param content HTTP body
+     * @param connect The connect timeout
+     * @param read The read timeout
+     * @return Response obtained
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Response fetch(final String key,
+        final ConditionalWire.Saved saved, final long now,
+        final Request req, final String home, final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content, final int connect, final int read)
+        throws IOException {
+        final Collection<Map.Entry<String, String>> hdrs =
+            new ArrayList<>(headers);
+        if (saved != null) {
+            hdrs.add(saved.condition());
+        }
+        final Response fresh = this.origin.send(
+            req, home, method, hdrs, content, connect, read
+        );
+        final Response response;
+        if (saved != null
+            && fresh.status() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            response = saved.response();
+            ConditionalWire.save(
+                key, new ConditionalWire.Saved(response, fresh, now)
+            );
+        } else {
+            response = fresh;
+            if (fresh.status() == HttpURLConnection.HTTP_OK
+                && (ConditionalWire.header(fresh, "ETag").isPresent()
+                || ConditionalWire.header(fresh, "Last-Modified")
+                    .isPresent())) {
+                ConditionalWire.save(
+                    key, new ConditionalWire.Saved(fresh, fresh, now)
+                );
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Save the response.
+     * @param key The key
+     * @param saved The response
+     */
+    private static void save(final String key,
+        final ConditionalWire.Saved saved) {
+        synchronized (ConditionalWire.SAVED) {
+            ConditionalWire.SAVED.put(key, saved);
+        }
+    }
+
+    /**
+     * Key of the request: its token and URI, without "since".
+     * @param home The URI
+     * @param headers Headers of the request
+     * @return The key
+     */
+    private static String key(final String home,
+        final Collection<Map.Entry<String, String>> headers) {
+        final StringBuilder key = new StringBuilder(home.length());
+        for (final Map.Entry<String, String> header : headers) {
+            if ("Authorization".equalsIgnoreCase(header.getKey())) {
+                key.append(header.getValue());
+            }
+        }
+        return key.append(' ')
+            .append(home.replaceAll("([?&])since=[^&]*&?", "$1"))
+            .toString();
+    }
+
+    /**
+     * Find a header in the response.
+     * @param response The response
+     * @param name Name of the header
+     * @return Its first value, if present
+     */
+    static Optional<String> header(final Response response,
+        final String name) {
+        Optional<String> value = Optional.empty();
+        for (final Map.Entry<String, List<String>> header
+            : response.headers().entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())
+                && !header.getValue().isEmpty()) {
+                value = Optional.of(header.getValue().get(0));
+                break;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Make a map that forgets the least recently used entries.
+     * @param size Maximum number of entries
+     * @return The map
+     */
+    private static Map<String, ConditionalWire.Saved> lru(final int size) {
+        return new LinkedHashMap<String, ConditionalWire.Saved>(
+            size, 0.75f, true
+        ) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<String, ConditionalWire.Saved> eldest) {
+                return this.size() > size;
+            }
+        };
+    }
+
+    /**
+     * Response saved.
+     *
+     * @since 1.0
+     */
+    private static final class Saved {
+
+        /**
+         * The response.
+         */
+        private final transient Response rsp;
+
+        /**
+         * Header to send with the next request.
+         */
+        private final transient Map.Entry<String, String> cond;
+
+        /**
+         * Time before which GitHub must not be asked again, in milliseconds.
+         */
+        private final transient long msec;
+
+        /**
+         * Ctor.
+         * @param response The response to keep
+         * @param latest The latest response from GitHub, 200 or 304
+         * @param now Current time in milliseconds
+         */
+        Saved(final Response response, final Response latest,
+            final long now) {
+            this.rsp = response;
+            final Optional<String> etag = ConditionalWire.header(
+                response, "ETag"
+            );
+            if (etag.isPresent()) {
+                this.cond = new AbstractMap.SimpleImmutableEntry<>(
+                    "If-None-Match", etag.get()
+                );
+            } else {
+                this.cond = new AbstractMap.SimpleImmutableEntry<>(
+                    "If-Modified-Since",
+                    ConditionalWire.header(response, "Last-Modified").get()
+                );
+            }
+            this.msec = now + TimeUnit.SECONDS.toMillis(
+                ConditionalWire.header(latest, "X-Poll-Interval")
+                    .map(Long::parseLong)
+                    .orElse(0L)
+            );
+        }
+
+        /**
+         * The response.
+         * @return Response
+         */
+        public Response response() {
+            return this.rsp;
+        }
+
+        /**
+         * Header that makes the next request conditional.
+         * @return Header
+         */
+        public Map.Entry<String, String> condition() {
+            return this.cond;
+        }
+
+        /**
+         * Time before which GitHub must not be asked again.
+         * @return Time in milliseconds
+         */
+        public long until() {
+            return this.msec;
+        }
+    }
+
+}
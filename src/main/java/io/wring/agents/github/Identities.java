@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents.github;
+
+import com.jcabi.github.Github;
+import io.wring.agents.Agent;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * GitHub users, by their tokens.
+ *
+ * <p>The login of the user is requested from GitHub only when it's
+ * not known yet or was requested too long ago, and is forgotten when
+ * GitHub stops accepting the token.</p>
+ *
+ * @since 1.0
+ */
+final class Identities {
+
+    /**
+     * Time to live of identities, in milliseconds.
+     */
+    private final transient long ttl;
+
+    /**
+     * Identities and the times they were loaded, by tokens.
+     */
+    private final transient ConcurrentMap<String, Identities.Loaded> map;
+
+    /**
+     * Ctor.
+     * @param msec Time to live of identities, in milliseconds
+     */
+    Identities(final long msec) {
+        this.ttl = msec;
+        this.map = new ConcurrentHashMap<>(0);
+    }
+
+    /**
+     * Get the identity of the token.
+     * @param token GitHub token
+     * @param github GitHub client that uses this token
+     * @return Identity
+     * @throws IOException If fails
+     */
+    public Identity identity(final String token, final Github github)
+        throws IOException {
+        final long now = System.currentTimeMillis();
+        Identities.Loaded loaded = this.map.get(token);
+        if (loaded == null || now - loaded.time() > this.ttl) {
+            final String login;
+            try {
+                login = github.users().self().login();
+            } catch (final AssertionError ex) {
+                this.invalidate(token);
+                throw new Agent.UserException(
+                    String.format(
+                        "Can't get GitHub user: %s",
+                        ex.getLocalizedMessage()
+                    ),
+                    ex
+                );
+            }
+            loaded = new Identities.Loaded(new Identity(login), now);
+            this.map.put(token, loaded);
+        }
+        return loaded.identity();
+    }
+
+    /**
+     * Forget the identity of the token, because it's not valid anymore.
+     * @param token GitHub token
+     */
+    public void invalidate(final String token) {
+        this.map.remove(token);
+    }
+
+    /**
+     * Identity loaded.
+     *
+     * @since 1.0
+     */
+    private static final class Loaded {
+
+        /**
+         * The identity.
+         */
+        private final transient Identity self;
+
+        /**
+         * When it was loaded, in milliseconds.
+         */
+        private final transient long msec;
+
+        /**
+         * Ctor.
+         * @param idt The identity
+         * @param when When it was loaded
+         */
+        Loaded(final Identity idt, final long when) {
+            this.self = idt;
+            this.msec = when;
+        }
+
+        /**
+         * The identity.
+         * @return Identity
+         */
+        public Identity identity() {
+            return this.self;
+        }
+
+        /**
+         * When it was loaded.
+         * @return Time in milliseconds
+         */
+        public long time() {
+            return this.msec;
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents.github;
+
+import java.util.regex.Pattern;
+
+/**
+ * GitHub user we work for.
+ *
+ * @since 1.0
+ */
+final class Identity {
+
+    /**
+     * Login of the user.
+     */
+    private final transient String name;
+
+    /**
+     * Mention of the user in a text.
+     */
+    private final transient Pattern mention;
+
+    /**
+     * Ctor.
+     * @param login Login of the user
+     */
+    Identity(final String login) {
+        this(
+            login,
+            Pattern.compile(
+                String.format(
+                    ".*(?<![a-zA -Z0-9-])%s(?![a-zA-Z0-9-]).*",
+                    Pattern.quote(String.format("@%s", login))
+                ),
+                Pattern.CASE_INSENSITIVE | Pattern.DOTALL | Pattern.MULTILINE
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param login Login of the user
+     * @param ptn Pattern of the mention
+     */
+    Identity(final String login, final Pattern ptn) {
+        this.name = login;
+        this.mention = ptn;
+    }
+
+    /**
+     * Login of the user.
+     * @return Login
+     */
+    public String login() {
+        return this.name;
+    }
+
+    /**
+     * Is the user mentioned in the text?
+     * @param text The text
+     * @return TRUE if mentioned
+     */
+    public boolean mentioned(final CharSequence text) {
+        return this.mention.matcher(text).matches();
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents.github;
+
+import io.wring.model.Event;
+import io.wring.model.Events;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Events posted by one subject, to be posted to the real events later.
+ *
+ * <p>Subjects are processed in parallel, but their events must be
+ * posted in the order of notifications, so each of them posts here first,
+ * see {@link #replay(Events)}.</p>
+ *
+ * @since 1.0
+ */
+final class RecordedEvents implements Events {
+
+    /**
+     * Titles and texts posted.
+     */
+    private final transient List<Map.Entry<String, String>> posted;
+
+    /**
+     * Ctor.
+     */
+    RecordedEvents() {
+        this.posted = new LinkedList<>();
+    }
+
+    @Override
+    public Iterable<Event> iterate() {
+        throw new UnsupportedOperationException("#iterate()");
+    }
+
+    @Override
+    public int total(final int max) {
+        throw new UnsupportedOperationException("#total()");
+    }
+
+    @Override
+    public void post(final String title, final String text) {
+        synchronized (this.posted) {
+            this.posted.add(
+                new AbstractMap.SimpleImmutableEntry<>(title, text)
+            );
+        }
+    }
+
+    @Override
+    public Event event(final String title) {
+        throw new UnsupportedOperationException("#event()");
+    }
+
+    @Override
+    public Event brief(final String title) {
+        throw new UnsupportedOperationException("#brief()");
+    }
+
+    /**
+     * Post everything recorded to the real events, in the same order.
+     * @param events Real events
+     * @throws IOException If fails
+     */
+    public void replay(final Events events) throws IOException {
+        synchronized (this.posted) {
+            for (final Map.Entry<String, String> post : this.posted) {
+                events.post(post.getKey(), post.getValue());
+            }
+        }
+    }
+
+}
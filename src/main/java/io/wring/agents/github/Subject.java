@@ -37,6 +37,8 @@ import io.wring.model.Base;
 import io.wring.model.Events;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
 import javax.json.Json;
 import javax.json.JsonObject;
 import org.apache.commons.lang3.StringUtils;
@@ -77,20 +79,49 @@ final class Subject {
         this.json = obj;
     }
 
+    /**
+     * Can't it wait when the rate limit is tight? Only scans of commit
+     * comments can.
+     * @return TRUE if urgent
+     */
+    public boolean urgent() {
+        return !"Commit".equals(this.json.getString("type"));
+    }
+
+    /**
+     * Key of the subject in the vault, the same as the body uses.
+     * @return The key
+     */
+    public String key() {
+        return String.format(
+            "%s#%s",
+            this.coords,
+            StringUtils.substringAfterLast(this.json.getString("url"), "/")
+        );
+    }
+
     /**
      * Post an event.
      * @param github Github client
+     * @param self The user we work for
+     * @param markers Markers in the vault, read before, by their keys;
+     *  the marker of this subject is absent if it's not in the vault
      * @param events Events
      * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
      */
     @SuppressWarnings("PMD.AvoidDuplicateLiterals")
-    public void push(final Github github, final Events events)
+    public void push(final Github github, final Identity self,
+        final Map<String, String> markers, final Events events)
         throws IOException {
+        final Optional<String> marker =
+            Optional.ofNullable(markers.get(this.key()));
         final String type = this.json.getString("type");
         final Body body;
         if ("Issue".equals(type) || "PullRequest".equals(type)) {
             body = new BoIssue(
                 this.base,
+                self,
                 new Issue.Smart(
                     github.repos().get(this.coords).issues().get(
                         Integer.parseInt(
@@ -100,11 +131,13 @@ final class Subject {
                             )
                         )
                     )
-                )
+                ),
+                marker
             );
         } else if ("Commit".equals(type)) {
             body = new BoCommit(
                 this.base,
+                self,
                 new RepoCommit.Smart(
                     github.repos().get(this.coords).commits().get(
                         StringUtils.substringAfterLast(
@@ -112,7 +145,8 @@ final class Subject {
                             "/"
                         )
                     )
-                )
+                ),
+                marker
             );
         } else {
             try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
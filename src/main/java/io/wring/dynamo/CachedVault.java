@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.dynamo;
+
+import com.jcabi.log.Logger;
+import io.wring.model.Vault;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vault with an in-memory LRU cache, which writes changes in batches.
+ *
+ * <p>Values are read from the origin only when they are not
+ * in the cache or are older than the TTL. Values saved are kept in memory
+ * and written to the origin by {@link #flush()}, all together, except
+ * the ones that didn't change. The size of the cache and its TTL are
+ * configured by {@code wring.vault.size} and {@code wring.vault.ttl}
+ * (in seconds) system properties. Many values can be loaded into
+ * the cache at once by {@link #values(Collection)}, in order to save
+ * round trips when they are read one by one later.</p>
+ *
+ * @since 1.0
+ */
+public final class CachedVault implements Vault {
+
+    /**
+     * Origin.
+     */
+    private final transient DyVault origin;
+
+    /**
+     * Values known, by keys, the least recently used first.
+     */
+    private final transient Map<String, CachedVault.Cached> cache;
+
+    /**
+     * Values saved and not written yet, by keys.
+     */
+    private final transient Map<String, String> dirty;
+
+    /**
+     * Time to live of cached values, in milliseconds.
+     */
+    private final transient long ttl;
+
+    /**
+     * Ctor.
+     * @param vault Origin
+     */
+    public CachedVault(final DyVault vault) {
+        this(
+            vault,
+            Integer.getInteger("wring.vault.size", 10_000),
+            TimeUnit.SECONDS.toMillis(
+                Long.getLong("wring.vault.ttl", TimeUnit.HOURS.toSeconds(1L))
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param vault Origin
+     * @param size Maximum number of values to keep in memory
+     * @param msec Time to live of cached values, in milliseconds
+     */
+    @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
+    public CachedVault(final DyVault vault, final int size, final long msec) {
+        this.origin = vault;
+        this.ttl = msec;
+        this.dirty = new HashMap<>(0);
+        this.cache = new LinkedHashMap<String, CachedVault.Cached>(
+            size, 0.75f, true
+        ) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<String, CachedVault.Cached> eldest) {
+                return this.size() > size;
+            }
+        };
+    }
+
+    @Override
+    public Optional<String> value(final String key) throws IOException {
+        final long now = System.currentTimeMillis();
+        final Optional<CachedVault.Cached> known;
+        synchronized (this.cache) {
+            known = this.known(key, now);
+        }
+        final Optional<String> value;
+        if (known.isPresent()) {
+            value = known.get().value();
+        } else {
+            value = this.origin.value(key);
+            synchronized (this.cache) {
+                if (!this.dirty.containsKey(key)) {
+                    this.cache.put(key, new CachedVault.Cached(value, now));
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public Map<String, String> values(final Collection<String> keys)
+        throws IOException {
+        final long now = System.currentTimeMillis();
+        final Map<String, String> found = new HashMap<>(keys.size());
+        final Set<String> missing = new LinkedHashSet<>(keys.size());
+        synchronized (this.cache) {
+            for (final String key : keys) {
+                final Optional<CachedVault.Cached> known =
+                    this.known(key, now);
+                if (known.isPresent()) {
+                    known.get().value().ifPresent(
+                        value -> found.put(key, value)
+                    );
+                } else {
+                    missing.add(key);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            final Map<String, String> loaded = this.origin.values(missing);
+            synchronized (this.cache) {
+                for (final String key : missing) {
+                    if (!this.dirty.containsKey(key)) {
+                        this.cache.put(
+                            key,
+                            new CachedVault.Cached(
+                                Optional.ofNullable(loaded.get(key)), now
+                            )
+                        );
+                    }
+                }
+            }
+            found.putAll(loaded);
+        }
+        Logger.info(
+            this, "%d vault value(s) requested, %d loaded",
+            keys.size(), missing.size()
+        );
+        return found;
+    }
+
+    @Override
+    public void save(final String key, final Optional<String> value)
+        throws IOException {
+        if (!value.isPresent()) {
+            throw new UnsupportedOperationException("can't delete");
+        }
+        synchronized (this.cache) {
+            final CachedVault.Cached cached = this.cache.get(key);
+            if (cached == null || !cached.value().equals(value)) {
+                this.dirty.put(key, value.get());
+                this.cache.put(
+                    key,
+                    new CachedVault.Cached(value, System.currentTimeMillis())
+                );
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        final Map<String, String> batch;
+        synchronized (this.cache) {
+            batch = new HashMap<>(this.dirty);
+            this.dirty.clear();
+        }
+        if (!batch.isEmpty()) {
+            try {
+                this.origin.save(batch);
+            } catch (final IOException ex) {
+                synchronized (this.cache) {
+                    batch.forEach(this.dirty::putIfAbsent);
+                }
+                throw ex;
+            }
+            Logger.info(this, "%d vault value(s) written", batch.size());
+        }
+    }
+
+    /**
+     * Find a value that is saved or cached and is not too old.
+     * @param key The key
+     * @param now Current time in milliseconds
+     * @return The value, if it is known
+     */
+    private Optional<CachedVault.Cached> known(final String key,
+        final long now) {
+        final String saved = this.dirty.get(key);
+        final Optional<CachedVault.Cached> known;
+        if (saved == null) {
+            known = Optional.ofNullable(this.cache.get(key))
+                .filter(cached -> now - cached.time() < this.ttl);
+        } else {
+            known = Optional.of(
+                new CachedVault.Cached(Optional.of(saved), now)
+            );
+        }
+        return known;
+    }
+
+    /**
+     * Value in the cache.
+     *
+     * @since 1.0
+     */
+    private static final class Cached {
+
+        /**
+         * The value.
+         */
+        private final transient Optional<String> val;
+
+        /**
+         * When it was read or saved, in milliseconds.
+         */
+        private final transient long msec;
+
+        /**
+         * Ctor.
+         * @param value The value
+         * @param when When it was read or saved
+         */
+        Cached(final Optional<String> value, final long when) {
+            this.val = value;
+            this.msec = when;
+        }
+
+        /**
+         * The value.
+         * @return Value
+         */
+        public Optional<String> value() {
+            return this.val;
+        }
+
+        /**
+         * When it was read or saved.
+         * @return Time in milliseconds
+         */
+        public long time() {
+            return this.msec;
+        }
+    }
+
+}
@@ -29,22 +29,51 @@
  */
 package io.wring.dynamo;
 
-import com.google.common.collect.Collections2;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.Select;
+import com.jcabi.dynamo.Conditions;
+import com.jcabi.dynamo.Item;
+import com.jcabi.dynamo.QueryValve;
 import com.jcabi.dynamo.Region;
+import com.jcabi.dynamo.ScanValve;
+import com.jcabi.log.Logger;
 import io.wring.model.Base;
 import io.wring.model.Pipe;
 import io.wring.model.User;
 import io.wring.model.Vault;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.cactoos.scalar.Solid;
+import org.cactoos.scalar.Unchecked;
 
 /**
  * Dynamo Base.
  *
+ * <p>Pipes are sharded by their IDs and indexed by the time they are
+ * due to run next, in the "due" global secondary index, so that
+ * {@link #pipes()} reads only those pipes, which have to be
+ * processed in the next minute, instead of scanning the entire table.</p>
+ *
  * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
  */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
 public final class DyBase implements Base {
 
+    /**
+     * How many shards of the "due" index we have.
+     */
+    static final int SHARDS = 16;
+
     /**
      * URN matcher.
      */
@@ -52,11 +81,26 @@ public final class DyBase implements Base {
         "urn:github:.*"
     );
 
+    /**
+     * How far ahead to look for pipes due, in milliseconds.
+     */
+    private static final long WINDOW = TimeUnit.MINUTES.toMillis(1L);
+
     /**
      * The region to work with.
      */
     private final transient Region region;
 
+    /**
+     * Pipes without a shard, found once and scheduled.
+     */
+    private final transient Unchecked<Integer> legacy;
+
+    /**
+     * The vault, shared by all pipes.
+     */
+    private final transient Vault vlt;
+
     /**
      * Ctor.
      */
@@ -70,6 +114,8 @@ public final class DyBase implements Base {
      */
     public DyBase(final Region reg) {
         this.region = reg;
+        this.legacy = new Unchecked<>(new Solid<>(this::schedule));
+        this.vlt = new CachedVault(new DyVault(reg));
     }
 
     @Override
@@ -84,16 +130,124 @@ public final class DyBase implements Base {
 
     @Override
     public Collection<Pipe> pipes() {
-        return Collections2.transform(
-            this.region.table("pipes")
-                .frame(),
-            DyPipe::new
-        );
+        this.legacy.value();
+        final long before = System.currentTimeMillis() + DyBase.WINDOW;
+        return IntStream.range(0, DyBase.SHARDS)
+            .parallel()
+            .mapToObj(shard -> this.due(shard, before))
+            .flatMap(Collection::stream)
+            .sorted(Comparator.comparing(DyBase::due))
+            .map(DyPipe::new)
+            .collect(Collectors.toList());
     }
 
     @Override
     public Vault vault() {
-        return new DyVault(this.region);
+        return this.vlt;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Users are found among owners of pipes, by a scan of
+     * the {@code pipes} table, which reads nothing but their URNs.</p>
+     */
+    @Override
+    public int reconcile() throws IOException {
+        final Collection<String> urns = new TreeSet<>();
+        for (final Item item : this.region.table("pipes")
+            .frame()
+            .through(new ScanValve().withAttributeToGet("urn"))) {
+            urns.add(item.get("urn").getS());
+        }
+        for (final String urn : urns) {
+            final int total = new DyEvents(this.region, urn).reconcile();
+            Logger.debug(this, "Total of %s reconciled: %d", urn, total);
+        }
+        Logger.info(this, "Totals of %d users reconciled", urns.size());
+        return urns.size();
+    }
+
+    /**
+     * Shard of the pipe with this ID.
+     * @param id Pipe ID
+     * @return Shard number
+     */
+    static long shard(final long id) {
+        return Math.abs(id % DyBase.SHARDS);
+    }
+
+    /**
+     * Find pipes in one shard, which are due before the given time.
+     * @param shard The shard
+     * @param before Time in milliseconds
+     * @return Items found
+     */
+    private Collection<Item> due(final int shard, final long before) {
+        return this.region.table("pipes")
+            .frame()
+            .through(
+                new QueryValve()
+                    .withIndexName("due")
+                    .withSelect(Select.ALL_ATTRIBUTES)
+                    .withConsistentRead(false)
+            )
+            .where("shard", Conditions.equalTo(shard))
+            .where(
+                "due",
+                new Condition()
+                    .withComparisonOperator(ComparisonOperator.LE)
+                    .withAttributeValueList(
+                        new AttributeValue().withN(Long.toString(before))
+                    )
+            )
+            .stream()
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Assign shards and due times to pipes created before
+     * the "due" index existed, so that the index can see them.
+     * @return How many pipes were scheduled
+     */
+    private int schedule() {
+        final Collection<Item> items = this.region.table("pipes")
+            .frame()
+            .through(new ScanValve())
+            .where(
+                "due",
+                new Condition().withComparisonOperator(ComparisonOperator.NULL)
+            )
+            .stream()
+            .collect(Collectors.toList());
+        final long now = System.currentTimeMillis();
+        for (final Item item : items) {
+            try {
+                new DyPipe(item).schedule(now);
+            } catch (final IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        if (!items.isEmpty()) {
+            Logger.info(
+                this, "%d pipes without a shard scheduled",
+                items.size()
+            );
+        }
+        return items.size();
+    }
+
+    /**
+     * Time when the pipe is due.
+     * @param item The item
+     * @return Time in milliseconds
+     */
+    private static long due(final Item item) {
+        try {
+            return Long.parseLong(item.get("due").getN());
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
     }
 
 }
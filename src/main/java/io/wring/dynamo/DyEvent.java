@@ -29,18 +29,32 @@
  */
 package io.wring.dynamo;
 
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.model.AttributeAction;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.Select;
 import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Conditions;
+import com.jcabi.dynamo.Frame;
 import com.jcabi.dynamo.Item;
+import com.jcabi.dynamo.QueryValve;
+import com.jcabi.dynamo.Region;
+import com.jcabi.dynamo.Table;
 import io.wring.model.Event;
 import java.io.IOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.xml.bind.DatatypeConverter;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.StringEscapeUtils;
 import org.xembly.Directive;
 import org.xembly.Directives;
@@ -55,43 +69,133 @@ import org.xembly.Xembler;
 @SuppressWarnings("PMD.AvoidDuplicateLiterals")
 public final class DyEvent implements Event {
 
+    /**
+     * Separator between texts posted to the same event.
+     */
+    static final String SEPARATOR = "\n\n---\n\n";
+
+    /**
+     * Name of the table with texts of events.
+     */
+    static final String TEXTS = "texts";
+
+    /**
+     * Maximum length of the preview.
+     */
+    private static final int PREVIEW = 200;
+
     /**
      * The item.
      */
     private final transient Item item;
 
+    /**
+     * Render texts too, not only the preview?
+     */
+    private final transient boolean full;
+
     /**
      * Ctor.
      * @param itm Item with pitch
      */
     public DyEvent(final Item itm) {
+        this(itm, true);
+    }
+
+    /**
+     * Ctor.
+     * @param itm Item with pitch
+     * @param texts Render texts too, not only the preview
+     */
+    public DyEvent(final Item itm, final boolean texts) {
         this.item = itm;
+        this.full = texts;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Texts are loaded from the {@code texts} table only if the
+     * event is rendered in full, while a brief one has only the
+     * preview, which is in the item. The hash doesn't depend on the
+     * texts, it changes every time something is posted to the event,
+     * so it's the same in both of them.</p>
+     */
     @Override
     public Iterable<Directive> asXembly() throws IOException {
-        final String text = this.item.get("text").getS();
-        return new Directives()
+        final String preview = this.preview();
+        final Directives dirs = new Directives()
             .add("event")
             .add("urn").set(this.item.get("urn").getS()).up()
             .add("rank").set(this.item.get("rank").getN()).up()
             .add("title")
             .set(Xembler.escape(this.item.get("title").getS())).up()
-            .add("text")
-            .set(Xembler.escape(text)).up()
+            .add("preview")
+            .set(Xembler.escape(preview)).up()
             .add("md5")
-            .set(DyEvent.hash(text)).up()
-            .add("html")
-            .set(Xembler.escape(DyEvent.html(text))).up();
+            .set(DyEvent.hash(String.format("%s %s", this.seq(), preview)))
+            .up();
+        if (this.full) {
+            final String text = String.join(DyEvent.SEPARATOR, this.texts());
+            dirs.add("text")
+                .set(Xembler.escape(text)).up()
+                .add("html")
+                .set(Xembler.escape(DyEvent.html(text))).up();
+        }
+        return dirs;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The total of events of the user goes down only if the event
+     * was there, so that deleting it twice doesn't break the total.</p>
+     */
     @Override
     public void delete() throws IOException {
-        this.item.frame().table().delete(
-            new Attributes()
-                .with("urn", this.item.get("urn").getS())
-                .with("title", this.item.get("title").getS())
-        );
+        final Region region = this.item.frame().table().region();
+        final String urn = this.item.get("urn").getS();
+        boolean deleted = true;
+        final AmazonDynamoDB aws = region.aws();
+        try {
+            aws.deleteItem(
+                new DeleteItemRequest()
+                    .withTableName(this.item.frame().table().name())
+                    .withKey(
+                        new Attributes()
+                            .with("urn", urn)
+                            .with("title", this.item.get("title").getS())
+                    )
+                    .withConditionExpression("attribute_exists(#rank)")
+                    .withExpressionAttributeNames(
+                        Collections.singletonMap("#rank", "rank")
+                    )
+            );
+        } catch (final AmazonServiceException ex) {
+            if (!DyEvents.conditional(ex)) {
+                throw new IOException(ex);
+            }
+            deleted = false;
+        } finally {
+            aws.shutdown();
+        }
+        if (deleted) {
+            DyEvents.add(region, urn, -1);
+        }
+        final Table table = region.table(DyEvent.TEXTS);
+        final Iterator<Item> texts = this.frame(
+            new QueryValve()
+                .withSelect(Select.SPECIFIC_ATTRIBUTES)
+                .withAttributesToGet("event", "seq")
+        ).iterator();
+        while (texts.hasNext()) {
+            final Item txt = texts.next();
+            table.delete(
+                new Attributes()
+                    .with("event", txt.get("event"))
+                    .with("seq", txt.get("seq"))
+            );
+        }
     }
 
     @Override
@@ -104,6 +208,137 @@ public final class DyEvent implements Event {
         );
     }
 
+    /**
+     * Unique key of the event in the {@code texts} table.
+     * @param urn URN of the user
+     * @param title Title of the event
+     * @return The key
+     */
+    static String key(final String urn, final String title) {
+        return String.format("%s#%s", urn, title);
+    }
+
+    /**
+     * Texts of the event, the latest first, loaded from the
+     * {@code texts} table, see {@link DyEvents#post(String, String)}.
+     *
+     * <p>Events that have no {@code seq} were posted before the texts
+     * were moved out of their items and still keep them inside.</p>
+     *
+     * @return Texts, trimmed
+     * @throws IOException If fails
+     */
+    private List<String> texts() throws IOException {
+        final List<String> parts;
+        if (this.item.has("seq")) {
+            parts = new LinkedList<>();
+            final Iterator<Item> texts = this.frame(
+                new QueryValve()
+                    .withLimit(DyEvents.MAX)
+                    .withScanIndexForward(false)
+                    .withSelect(Select.SPECIFIC_ATTRIBUTES)
+                    .withAttributesToGet("event", "seq", "text")
+            ).iterator();
+            while (texts.hasNext() && parts.size() < DyEvents.MAX) {
+                parts.add(Packed.unpack(texts.next().get("text")).trim());
+            }
+        } else {
+            parts = DyEvent.parts(this.item);
+        }
+        return parts;
+    }
+
+    /**
+     * Preview of the latest text, which is in the item, unless it
+     * was posted before the texts were moved out of their items.
+     * @return Preview
+     * @throws IOException If fails
+     */
+    private String preview() throws IOException {
+        final String preview;
+        if (this.item.has("preview")) {
+            preview = this.item.get("preview").getS();
+        } else {
+            preview = DyEvent.preview(this.texts());
+        }
+        return preview;
+    }
+
+    /**
+     * Number of the latest text posted.
+     * @return Number or empty, if the texts are still in the item
+     * @throws IOException If fails
+     */
+    private String seq() throws IOException {
+        final String seq;
+        if (this.item.has("seq")) {
+            seq = this.item.get("seq").getN();
+        } else {
+            seq = "";
+        }
+        return seq;
+    }
+
+    /**
+     * Preview of the latest text.
+     * @param texts Texts, the latest first
+     * @return Preview
+     */
+    static String preview(final List<String> texts) {
+        final String preview;
+        if (texts.isEmpty()) {
+            preview = "";
+        } else {
+            preview = StringUtils.abbreviate(texts.get(0), DyEvent.PREVIEW);
+        }
+        return preview;
+    }
+
+    /**
+     * Frame of texts of this event.
+     * @param valve The valve to fetch through
+     * @return Frame
+     * @throws IOException If fails
+     */
+    private Frame frame(final QueryValve valve) throws IOException {
+        return this.item.frame().table().region()
+            .table(DyEvent.TEXTS)
+            .frame()
+            .through(valve)
+            .where(
+                "event",
+                Conditions.equalTo(
+                    DyEvent.key(
+                        this.item.get("urn").getS(),
+                        this.item.get("title").getS()
+                    )
+                )
+            );
+    }
+
+    /**
+     * Texts of the event kept inside its item, the latest first.
+     *
+     * <p>Texts recently posted are in the {@code texts} list, while
+     * all previous ones are compacted into {@code text}.</p>
+     *
+     * @param itm The item
+     * @return Texts, trimmed
+     * @throws IOException If fails
+     */
+    static List<String> parts(final Item itm) throws IOException {
+        final List<String> parts = new LinkedList<>();
+        if (itm.has("texts")) {
+            for (final AttributeValue part : itm.get("texts").getL()) {
+                parts.add(part.getS().trim());
+            }
+        }
+        if (itm.has("text")) {
+            parts.add(Packed.unpack(itm.get("text")).trim());
+        }
+        return parts;
+    }
+
     /**
      * To md5 hash.
      * @param text The text
@@ -29,12 +29,18 @@
  */
 package io.wring.dynamo;
 
-import com.amazonaws.services.dynamodbv2.model.AttributeAction;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
-import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
 import com.amazonaws.services.dynamodbv2.model.Select;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
 import com.jcabi.aspects.Tv;
-import com.jcabi.dynamo.AttributeUpdates;
 import com.jcabi.dynamo.Attributes;
 import com.jcabi.dynamo.Conditions;
 import com.jcabi.dynamo.Item;
@@ -45,7 +51,11 @@ import com.jcabi.log.Logger;
 import io.wring.model.Event;
 import io.wring.model.Events;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -57,6 +67,21 @@ import org.apache.commons.lang3.StringUtils;
 @SuppressWarnings("PMD.AvoidDuplicateLiterals")
 public final class DyEvents implements Events {
 
+    /**
+     * Maximum number of texts kept for one event.
+     */
+    static final int MAX = 16;
+
+    /**
+     * How many times to try to reconcile a total that keeps changing.
+     */
+    private static final int ATTEMPTS = 3;
+
+    /**
+     * Name of the table with totals of events of users.
+     */
+    private static final String TOTALS = "totals";
+
     /**
      * The region to work with.
      */
@@ -77,6 +102,14 @@ public final class DyEvents implements Events {
         this.urn = user;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Only the title, the rank and the preview of each event are
+     * fetched, which is all the {@code top} index has. The events
+     * are brief, their texts are never loaded, see
+     * {@link DyEvent#asXembly()}.</p>
+     */
     @Override
     public Iterable<Event> iterate() {
         return () -> this.table()
@@ -85,80 +118,336 @@ public final class DyEvents implements Events {
                 new QueryValve()
                     .withLimit(Tv.TWENTY)
                     .withIndexName("top")
-                    .withSelect(Select.ALL_ATTRIBUTES)
+                    .withSelect(Select.SPECIFIC_ATTRIBUTES)
+                    .withAttributesToGet(
+                        "urn", "title", "rank", "seq", "preview"
+                    )
                     .withScanIndexForward(false)
                     .withConsistentRead(false)
             )
             .where("urn", Conditions.equalTo(this.urn))
             .stream()
-            .map(DyEvent::new)
+            .map(item -> new DyEvent(item, false))
             .map(Event.class::cast)
             .iterator();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>It's one read of the counter of the user in the {@code totals}
+     * table, which {@link #post(String, String)} and
+     * {@link DyEvent#delete()} keep up to date and {@link #reconcile()}
+     * repairs. If the counter is not there yet, the events are counted
+     * in the {@code top} index once, all of them, no matter what the
+     * maximum is, and the counter is created, so that all later calls
+     * are cheap, even for users who have no pipes and whom
+     * {@link #reconcile()} never reaches.</p>
+     */
     @Override
-    public void post(final String title, final String text)
+    public int total(final int max) throws IOException {
+        final Map<String, AttributeValue> item = this.stored(false);
+        final int total;
+        if (item.containsKey("total")) {
+            total = (int) Math.max(
+                0L,
+                Math.min(Long.parseLong(item.get("total").getN()), max)
+            );
+        } else {
+            total = Math.min(this.create(), max);
+        }
+        return total;
+    }
+
+    /**
+     * Count all events of the user and save the number as their total.
+     *
+     * <p>The total is read before the events are counted and the new
+     * one is saved only if the total is still the same, otherwise the
+     * post or the deletion that changed it would be lost. In that case
+     * it starts over, a few times, and then gives up till the next
+     * reconciliation.</p>
+     *
+     * @return The total
+     * @throws IOException If fails
+     */
+    public int reconcile() throws IOException {
+        int total = 0;
+        boolean saved = false;
+        for (int attempt = 0; attempt < DyEvents.ATTEMPTS && !saved;
+            ++attempt) {
+            final Map<String, AttributeValue> before = this.stored(true);
+            total = this.count(Integer.MAX_VALUE);
+            saved = this.save(before, total);
+        }
+        if (!saved) {
+            Logger.warn(
+                this, "The total of %s keeps changing, not reconciled",
+                this.urn
+            );
+        }
+        return total;
+    }
+
+    /**
+     * Count all events of the user and save the number as their total,
+     * unless somebody has done it already.
+     * @return The total
+     * @throws IOException If fails
+     */
+    private int create() throws IOException {
+        final int total = this.count(Integer.MAX_VALUE);
+        this.save(Collections.emptyMap(), total);
+        return total;
+    }
+
+    /**
+     * The item of the user in the {@code totals} table.
+     * @param consistent Read it consistently
+     * @return The item, or empty if it's not there
+     * @throws IOException If fails
+     */
+    private Map<String, AttributeValue> stored(final boolean consistent)
         throws IOException {
-        final Iterator<Item> items = this.items(title);
-        if (items.hasNext()) {
-            final Item item = items.next();
-            item.put(
-                new AttributeUpdates()
-                    .with(
-                        "rank",
-                        new AttributeValueUpdate()
-                            .withValue(new AttributeValue().withN("1"))
-                            .withAction(AttributeAction.ADD)
+        final Map<String, AttributeValue> item;
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            item = aws.getItem(
+                new GetItemRequest()
+                    .withTableName(this.region.table(DyEvents.TOTALS).name())
+                    .withKey(new Attributes().with("urn", this.urn))
+                    .withConsistentRead(consistent)
+            ).getItem();
+        } catch (final AmazonServiceException ex) {
+            throw new IOException(ex);
+        } finally {
+            aws.shutdown();
+        }
+        final Map<String, AttributeValue> found;
+        if (item == null) {
+            found = Collections.emptyMap();
+        } else {
+            found = item;
+        }
+        return found;
+    }
+
+    /**
+     * Save the total, if it's still the same as it was.
+     * @param before The item in the {@code totals} table, as it was
+     *  read before the events were counted, or empty
+     * @param total The new total
+     * @return TRUE if saved, FALSE if the total has changed meanwhile
+     * @throws IOException If fails
+     */
+    private boolean save(final Map<String, AttributeValue> before,
+        final int total) throws IOException {
+        final PutItemRequest req = new PutItemRequest()
+            .withTableName(this.region.table(DyEvents.TOTALS).name())
+            .withItem(
+                new Attributes()
+                    .with("urn", this.urn)
+                    .with("total", total)
+                    .with("time", System.currentTimeMillis())
+            )
+            .withExpressionAttributeNames(DyEvents.names("total"));
+        if (before.containsKey("total")) {
+            req.withConditionExpression("#total = :before")
+                .withExpressionAttributeValues(
+                    Collections.singletonMap(":before", before.get("total"))
+                );
+        } else {
+            req.withConditionExpression("attribute_not_exists(#total)");
+        }
+        boolean saved = true;
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            aws.putItem(req);
+        } catch (final AmazonServiceException ex) {
+            if (!DyEvents.conditional(ex)) {
+                throw new IOException(ex);
+            }
+            saved = false;
+        } finally {
+            aws.shutdown();
+        }
+        return saved;
+    }
+
+    /**
+     * Change the total of events of the user, if it's there.
+     *
+     * <p>The total that is absent is not created, since it would
+     * start from a wrong number; {@link #reconcile()} creates it.</p>
+     *
+     * @param reg Region
+     * @param user URN of the user
+     * @param delta How much to add
+     * @throws IOException If fails
+     */
+    static void add(final Region reg, final String user, final int delta)
+        throws IOException {
+        final AmazonDynamoDB aws = reg.aws();
+        try {
+            aws.updateItem(
+                new UpdateItemRequest()
+                    .withTableName(reg.table(DyEvents.TOTALS).name())
+                    .withKey(new Attributes().with("urn", user))
+                    .withUpdateExpression("ADD #total :delta")
+                    .withConditionExpression("attribute_exists(#total)")
+                    .withExpressionAttributeNames(DyEvents.names("total"))
+                    .withExpressionAttributeValues(
+                        Collections.singletonMap(
+                            ":delta",
+                            new AttributeValue().withN(Integer.toString(delta))
+                        )
                     )
-                    .with(
-                        "text",
-                        new AttributeValueUpdate()
-                            .withAction(AttributeAction.PUT)
-                            .withValue(
-                                new AttributeValue().withS(
-                                    DyEvents.concat(
-                                        item.get("text").getS(),
-                                        text
-                                    )
+            );
+        } catch (final AmazonServiceException ex) {
+            if (!DyEvents.conditional(ex)) {
+                throw new IOException(ex);
+            }
+        } finally {
+            aws.shutdown();
+        }
+    }
+
+    /**
+     * The request failed because of its condition?
+     * @param error The error
+     * @return TRUE if the condition was not met
+     */
+    static boolean conditional(final AmazonServiceException error) {
+        return error instanceof ConditionalCheckFailedException
+            || "ConditionalCheckFailedException".equals(error.getErrorCode());
+    }
+
+    /**
+     * Count events in the {@code top} index, with {@code Select.COUNT},
+     * which reads no attributes, page by page, until the maximum is
+     * reached.
+     * @param max Maximum to count to
+     * @return How many events are there
+     * @throws IOException If fails
+     */
+    private int count(final int max) throws IOException {
+        int total = 0;
+        Map<String, AttributeValue> start = null;
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            do {
+                final QueryResult result;
+                try {
+                    result = aws.query(
+                        new QueryRequest()
+                            .withTableName(this.table().name())
+                            .withIndexName("top")
+                            .withKeyConditions(
+                                Collections.singletonMap(
+                                    "urn", Conditions.equalTo(this.urn)
                                 )
                             )
-                    )
-            );
-            Logger.info(
-                this, "Event updated for %s: \"%s\"",
-                this.urn, title
-            );
+                            .withSelect(Select.COUNT)
+                            .withConsistentRead(false)
+                            .withLimit(max - total)
+                            .withExclusiveStartKey(start)
+                    );
+                } catch (final AmazonServiceException ex) {
+                    throw new IOException(ex);
+                }
+                total += result.getCount();
+                start = result.getLastEvaluatedKey();
+            } while (start != null && total < max);
+        } finally {
+            aws.shutdown();
+        }
+        return total;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The event item keeps only its rank, a short preview and the
+     * number of texts posted, in {@code seq}, which is bumped by one
+     * UpdateItem. The text itself goes into its own item in
+     * the {@code texts} table, under the new {@code seq}, and the text
+     * that is {@link #MAX} posts older is deleted from there. Thus, a post
+     * costs the same, no matter how long the history of the event is.</p>
+     */
+    @Override
+    public void post(final String title, final String text)
+        throws IOException {
+        final int start;
+        if (title.startsWith("io.wring.agents.")) {
+            start = -Tv.THOUSAND;
+        } else {
+            start = 1;
+        }
+        final Map<String, AttributeValue> before;
+        try {
+            before = this.upsert(title, text, start);
+        } catch (final AmazonServiceException ex) {
+            throw new IOException(ex);
+        }
+        final long seq;
+        if (before.containsKey("seq")) {
+            seq = Long.parseLong(before.get("seq").getN()) + 1L;
         } else {
-            final int rank;
-            if (title.startsWith("io.wring.agents.")) {
-                rank = -Tv.THOUSAND;
-            } else {
-                rank = 1;
+            seq = 1L;
+            if (before.containsKey("rank")) {
+                this.migrate(title);
             }
-            this.table().put(
+        }
+        final Table texts = this.region.table(DyEvent.TEXTS);
+        texts.put(
+            new Attributes()
+                .with("event", DyEvent.key(this.urn, title))
+                .with("seq", seq)
+                .with("text", Packed.pack(text.trim()))
+                .with("time", System.currentTimeMillis())
+        );
+        if (seq > DyEvents.MAX) {
+            texts.delete(
                 new Attributes()
-                    .with("urn", this.urn)
-                    .with("title", title)
-                    .with("text", text)
-                    .with("rank", rank)
-                    .with("time", System.currentTimeMillis())
+                    .with("event", DyEvent.key(this.urn, title))
+                    .with("seq", seq - DyEvents.MAX)
             );
+        }
+        if (before.containsKey("rank")) {
             Logger.info(
-                this, "Event created for %s: \"%s\"",
-                this.urn, title
+                this, "Event updated for %s: \"%s\"", this.urn, title
+            );
+        } else {
+            DyEvents.add(this.region, this.urn, 1);
+            Logger.info(
+                this, "Event created for %s: \"%s\"", this.urn, title
             );
         }
     }
 
     @Override
     public Event event(final String title) {
+        return new DyEvent(this.item(title));
+    }
+
+    @Override
+    public Event brief(final String title) {
+        return new DyEvent(this.item(title), false);
+    }
+
+    /**
+     * Find the item by title.
+     * @param title Unique title of the event
+     * @return The item
+     */
+    private Item item(final String title) {
         final Iterator<Item> items = this.items(title);
         if (!items.hasNext()) {
             throw new IllegalArgumentException(
                 String.format("Event with title \"%s\" not found", title)
             );
         }
-        return new DyEvent(items.next());
+        return items.next();
     }
 
     /**
@@ -176,25 +465,150 @@ public final class DyEvents implements Events {
     }
 
     /**
-     * Table to work with.
-     * @return Table
+     * Create or update the event, in one request.
+     * @param title Unique title of the event
+     * @param text Text posted
+     * @param start Rank of a new event
+     * @return Attributes before the update, empty if it's a new event
      */
-    private Table table() {
-        return this.region.table("events");
+    private Map<String, AttributeValue> upsert(final String title,
+        final String text, final int start) {
+        final Map<String, AttributeValue> values = new HashMap<>(0);
+        values.put(
+            ":preview",
+            new AttributeValue().withS(
+                DyEvent.preview(Collections.singletonList(text.trim()))
+            )
+        );
+        values.put(
+            ":start", new AttributeValue().withN(Integer.toString(start - 1))
+        );
+        values.put(":one", new AttributeValue().withN("1"));
+        values.put(
+            ":now",
+            new AttributeValue().withN(
+                Long.toString(System.currentTimeMillis())
+            )
+        );
+        final AmazonDynamoDB aws = this.region.aws();
+        final Map<String, AttributeValue> before;
+        try {
+            before = aws.updateItem(
+                new UpdateItemRequest()
+                    .withTableName(this.table().name())
+                    .withKey(
+                        new Attributes()
+                            .with("urn", this.urn)
+                            .with("title", title)
+                    )
+                    .withUpdateExpression(
+                        String.join(
+                            " ",
+                            String.join(
+                                ", ",
+                                "SET #preview = :preview",
+                                "#rank = if_not_exists(#rank, :start) + :one",
+                                "#time = if_not_exists(#time, :now)"
+                            ),
+                            "ADD #seq :one"
+                        )
+                    )
+                    .withExpressionAttributeNames(
+                        DyEvents.names("preview", "rank", "time", "seq")
+                    )
+                    .withExpressionAttributeValues(values)
+                    .withReturnValues(ReturnValue.UPDATED_OLD)
+            ).getAttributes();
+        } finally {
+            aws.shutdown();
+        }
+        final Map<String, AttributeValue> attrs;
+        if (before == null) {
+            attrs = Collections.emptyMap();
+        } else {
+            attrs = before;
+        }
+        return attrs;
+    }
+
+    /**
+     * Move the texts of an event, posted before they were kept
+     * in their own table, into the {@code texts} table, as one text
+     * with {@code seq} equal to zero.
+     *
+     * <p>It happens only once per event, on the first post to it
+     * after the upgrade, since only that post sees no {@code seq}
+     * in the item.</p>
+     *
+     * @param title Unique title of the event
+     * @throws IOException If fails
+     */
+    private void migrate(final String title) throws IOException {
+        final Iterator<Item> items = this.items(title);
+        if (items.hasNext()) {
+            final List<String> parts = DyEvent.parts(items.next());
+            if (!parts.isEmpty()) {
+                this.region.table(DyEvent.TEXTS).put(
+                    new Attributes()
+                        .with("event", DyEvent.key(this.urn, title))
+                        .with("seq", 0)
+                        .with(
+                            "text",
+                            Packed.pack(
+                                StringUtils.abbreviate(
+                                    String.join(DyEvent.SEPARATOR, parts),
+                                    Tv.TEN * Tv.THOUSAND
+                                )
+                            )
+                        )
+                        .with("time", System.currentTimeMillis())
+                );
+            }
+            final AmazonDynamoDB aws = this.region.aws();
+            try {
+                aws.updateItem(
+                    new UpdateItemRequest()
+                        .withTableName(this.table().name())
+                        .withKey(
+                            new Attributes()
+                                .with("urn", this.urn)
+                                .with("title", title)
+                        )
+                        .withUpdateExpression("REMOVE #text, #texts")
+                        .withExpressionAttributeNames(
+                            DyEvents.names("text", "texts")
+                        )
+                );
+            } catch (final AmazonServiceException ex) {
+                throw new IOException(ex);
+            } finally {
+                aws.shutdown();
+            }
+            Logger.info(
+                this, "Event migrated for %s: \"%s\"", this.urn, title
+            );
+        }
     }
 
     /**
-     * Concatenate old and new messages.
-     * @param before What do we have now
-     * @param extra What do add
+     * Names of attributes in expressions, like {@code #rank}.
+     * @param attrs Attributes used in the expressions
+     * @return Names
+     */
+    static Map<String, String> names(final String... attrs) {
+        final Map<String, String> names = new HashMap<>(0);
+        for (final String attr : attrs) {
+            names.put(String.format("#%s", attr), attr);
+        }
+        return names;
+    }
+
+    /**
+     * Table to work with.
      * @return Table
      */
-    private static String concat(final String before, final String extra) {
-        return String.format(
-            "%s\n\n---\n\n%s",
-            extra.trim(),
-            StringUtils.abbreviate(before.trim(), Tv.TEN * Tv.THOUSAND)
-        );
+    private Table table() {
+        return this.region.table("events");
     }
 
 }
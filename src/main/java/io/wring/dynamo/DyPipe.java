@@ -29,13 +29,25 @@
  */
 package io.wring.dynamo;
 
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.model.AttributeAction;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.jcabi.dynamo.AttributeUpdates;
 import com.jcabi.dynamo.Attributes;
 import com.jcabi.dynamo.Item;
 import io.wring.model.Pipe;
 import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonException;
+import org.cactoos.map.MapEntry;
+import org.cactoos.map.MapOf;
 import org.xembly.Directive;
 import org.xembly.Directives;
 import org.xembly.Xembler;
@@ -49,6 +61,16 @@ import org.xembly.Xembler;
 @SuppressWarnings("PMD.AvoidDuplicateLiterals")
 public final class DyPipe implements Pipe {
 
+    /**
+     * Shortest interval between runs, in milliseconds.
+     */
+    private static final long INTERVAL = TimeUnit.MINUTES.toMillis(1L);
+
+    /**
+     * Longest interval between runs by default, in minutes.
+     */
+    private static final int LONGEST = 30;
+
     /**
      * The item.
      */
@@ -85,14 +107,213 @@ public final class DyPipe implements Pipe {
         );
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The interval doubles every time the pipe posts nothing, up to
+     * the "interval" from its JSON config (in minutes), and drops back
+     * to the shortest one as soon as the pipe posts something. It is
+     * doubled inside the update, not from the item read before, which
+     * may be stale. The pipe waits for the interval it had before
+     * the update, since DynamoDB can't add it twice in one
+     * expression.</p>
+     */
     @Override
-    public void status(final String text) throws IOException {
+    public void status(final String text, final int posted)
+        throws IOException {
+        final long longest = Math.max(this.longest(), DyPipe.INTERVAL);
+        if (posted != 0 || !this.doubled(text, longest)) {
+            long interval = DyPipe.INTERVAL;
+            if (posted == 0) {
+                interval = longest;
+            }
+            this.update(
+                text,
+                "#due = :due, #interval = :interval",
+                "",
+                new MapOf<String, AttributeValue>(
+                    new MapEntry<>(
+                        ":due",
+                        DyPipe.number(System.currentTimeMillis() + interval)
+                    ),
+                    new MapEntry<>(":interval", DyPipe.number(interval))
+                )
+            );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The pipe waits for the interval it has now, which is not
+     * changed.</p>
+     */
+    @Override
+    public void failed(final String text) throws IOException {
+        this.update(
+            text,
+            "#due = :now + if_not_exists(#interval, :shortest)",
+            "",
+            new MapOf<String, AttributeValue>(
+                new MapEntry<>(
+                    ":now", DyPipe.number(System.currentTimeMillis())
+                ),
+                new MapEntry<>(":shortest", DyPipe.number(DyPipe.INTERVAL))
+            )
+        );
+    }
+
+    @Override
+    public void postpone(final String text, final long time)
+        throws IOException {
         this.item.put(
-            "status",
-            new AttributeValueUpdate()
-                .withAction(AttributeAction.PUT)
-                .withValue(new AttributeValue().withS(text))
+            this.due(Math.max(time, System.currentTimeMillis()))
+                .with(
+                    "status",
+                    new AttributeValueUpdate()
+                        .withAction(AttributeAction.PUT)
+                        .withValue(new AttributeValue().withS(text))
+                )
+        );
+    }
+
+    /**
+     * Schedule next run.
+     * @param time When it has to run, in milliseconds
+     * @throws IOException If fails
+     */
+    void schedule(final long time) throws IOException {
+        this.item.put(this.due(time));
+    }
+
+    /**
+     * Double the interval, unless it gets longer than allowed.
+     * @param text Text of the status to set
+     * @param longest Longest interval allowed, in milliseconds
+     * @return TRUE if doubled, FALSE if it's too long to double
+     * @throws IOException If fails
+     */
+    private boolean doubled(final String text, final long longest)
+        throws IOException {
+        return DyPipe.INTERVAL << 1 <= longest && this.update(
+            text,
+            String.format(
+                "#due = :now + %1$s, #interval = %1$s + %1$s",
+                "if_not_exists(#interval, :shortest)"
+            ),
+            "attribute_not_exists(#interval) OR #interval <= :half",
+            new MapOf<String, AttributeValue>(
+                new MapEntry<>(
+                    ":now", DyPipe.number(System.currentTimeMillis())
+                ),
+                new MapEntry<>(":shortest", DyPipe.number(DyPipe.INTERVAL)),
+                new MapEntry<>(":half", DyPipe.number(longest >> 1))
+            )
         );
     }
 
+    /**
+     * Set the status and schedule the next run, in one update.
+     * @param text Text of the status to set
+     * @param expression Assignments of "#due" and "#interval"
+     * @param condition Condition of the update, or empty
+     * @param values Values the expression and the condition refer to
+     * @return TRUE if updated, FALSE if the condition is not met
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private boolean update(final String text, final String expression,
+        final String condition, final Map<String, AttributeValue> values)
+        throws IOException {
+        final Map<String, AttributeValue> all = new HashMap<>(values);
+        all.put(":status", new AttributeValue().withS(text));
+        all.put(":shard", DyPipe.number(DyBase.shard(this.number())));
+        final UpdateItemRequest req = new UpdateItemRequest()
+            .withTableName(this.item.frame().table().name())
+            .withKey(
+                new Attributes()
+                    .with("urn", this.item.get("urn").getS())
+                    .with("id", this.number())
+            )
+            .withUpdateExpression(
+                String.format(
+                    "SET %s, #status = :status, #shard = :shard", expression
+                )
+            )
+            .withExpressionAttributeNames(
+                DyEvents.names("due", "interval", "status", "shard")
+            )
+            .withExpressionAttributeValues(all);
+        if (!condition.isEmpty()) {
+            req.withConditionExpression(condition);
+        }
+        boolean updated = true;
+        final AmazonDynamoDB aws = this.item.frame().table().region().aws();
+        try {
+            aws.updateItem(req);
+        } catch (final AmazonServiceException ex) {
+            if (!DyEvents.conditional(ex)) {
+                throw new IOException(ex);
+            }
+            updated = false;
+        } finally {
+            aws.shutdown();
+        }
+        return updated;
+    }
+
+    /**
+     * Longest interval allowed by the JSON config.
+     * @return Interval in milliseconds
+     * @throws IOException If fails
+     */
+    private long longest() throws IOException {
+        int minutes;
+        try {
+            minutes = Json.createReader(
+                new StringReader(this.item.get("json").getS())
+            ).readObject().getInt("interval", DyPipe.LONGEST);
+        } catch (final JsonException ex) {
+            minutes = DyPipe.LONGEST;
+        }
+        return TimeUnit.MINUTES.toMillis((long) minutes);
+    }
+
+    /**
+     * Number of the pipe.
+     * @return The number
+     * @throws IOException If fails
+     */
+    private long number() throws IOException {
+        return Long.parseLong(this.item.get("id").getN());
+    }
+
+    /**
+     * Numeric value.
+     * @param num The number
+     * @return Value
+     */
+    private static AttributeValue number(final long num) {
+        return new AttributeValue().withN(Long.toString(num));
+    }
+
+    /**
+     * Updates of the shard and the due time.
+     * @param time When it has to run, in milliseconds
+     * @return Updates
+     * @throws IOException If fails
+     */
+    private AttributeUpdates due(final long time) throws IOException {
+        return new AttributeUpdates()
+            .with(
+                "shard",
+                new AttributeValue().withN(
+                    Long.toString(
+                        DyBase.shard(this.number())
+                    )
+                )
+            )
+            .with("due", new AttributeValue().withN(Long.toString(time)));
+    }
+
 }
@@ -41,9 +41,9 @@ import com.jcabi.log.Logger;
 import io.wring.model.Pipe;
 import io.wring.model.Pipes;
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.Date;
 import javax.json.Json;
-import org.cactoos.io.InputOf;
 
 /**
  * Dynamo Pitches.
@@ -93,7 +93,7 @@ public final class DyPipes implements Pipes {
 
     @Override
     public void add(final String json) throws IOException {
-        Json.createReader(new InputOf(json).stream()).readObject();
+        Json.createReader(new StringReader(json)).readObject();
         final long num = System.currentTimeMillis();
         this.table().put(
             new Attributes()
@@ -102,6 +102,8 @@ public final class DyPipes implements Pipes {
                 .with("json", json)
                 .with("status", String.format("Created at %s", new Date()))
                 .with("time", System.currentTimeMillis())
+                .with("shard", DyBase.shard(num))
+                .with("due", num)
         );
         Logger.info(
             this, "New pipe #%d created by %s",
@@ -29,7 +29,16 @@
  */
 package io.wring.dynamo;
 
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
 import com.amazonaws.services.dynamodbv2.model.Select;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 import com.jcabi.dynamo.Attributes;
 import com.jcabi.dynamo.Conditions;
 import com.jcabi.dynamo.Item;
@@ -38,8 +47,18 @@ import com.jcabi.dynamo.Region;
 import com.jcabi.dynamo.Table;
 import io.wring.model.Vault;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Dynamo Vault.
@@ -50,6 +69,21 @@ import java.util.Optional;
 @SuppressWarnings("PMD.AvoidDuplicateLiterals")
 public final class DyVault implements Vault {
 
+    /**
+     * How many items DynamoDB accepts in one BatchWriteItem.
+     */
+    private static final int BATCH = 25;
+
+    /**
+     * How many keys DynamoDB accepts in one BatchGetItem.
+     */
+    private static final int KEYS = 100;
+
+    /**
+     * How many times to retry unprocessed items.
+     */
+    private static final int ATTEMPTS = 5;
+
     /**
      * The region to work with.
      */
@@ -84,6 +118,23 @@ public final class DyVault implements Vault {
         return value;
     }
 
+    @Override
+    public Map<String, String> values(final Collection<String> keys)
+        throws IOException {
+        final List<String> all = new ArrayList<>(new LinkedHashSet<>(keys));
+        final Map<String, String> found = new HashMap<>(all.size());
+        for (int start = 0; start < all.size(); start += DyVault.KEYS) {
+            found.putAll(
+                this.read(
+                    all.subList(
+                        start, Math.min(start + DyVault.KEYS, all.size())
+                    )
+                )
+            );
+        }
+        return found;
+    }
+
     @Override
     public void save(final String key, final Optional<String> value)
         throws IOException {
@@ -97,6 +148,155 @@ public final class DyVault implements Vault {
         );
     }
 
+    @Override
+    public void flush() {
+        // nothing to flush, everything is saved immediately
+    }
+
+    /**
+     * Put many values at once, in batches.
+     * @param values Values by keys
+     * @throws IOException If fails
+     */
+    void save(final Map<String, String> values) throws IOException {
+        final List<WriteRequest> all = values.entrySet().stream()
+            .map(
+                entry -> new WriteRequest().withPutRequest(
+                    new PutRequest()
+                        .addItemEntry("key", new AttributeValue(entry.getKey()))
+                        .addItemEntry(
+                            "value", new AttributeValue(entry.getValue())
+                        )
+                )
+            )
+            .collect(Collectors.toList());
+        for (int start = 0; start < all.size(); start += DyVault.BATCH) {
+            this.write(
+                new ArrayList<>(
+                    all.subList(
+                        start, Math.min(start + DyVault.BATCH, all.size())
+                    )
+                )
+            );
+        }
+    }
+
+    /**
+     * Write one batch, retrying unprocessed items.
+     * @param batch Requests, no more than {@link #BATCH}
+     * @throws IOException If fails
+     */
+    private void write(final List<WriteRequest> batch) throws IOException {
+        final String name = this.table().name();
+        Map<String, List<WriteRequest>> left =
+            Collections.singletonMap(name, batch);
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            for (int attempt = 0; attempt < DyVault.ATTEMPTS; ++attempt) {
+                try {
+                    left = aws.batchWriteItem(
+                        new BatchWriteItemRequest().withRequestItems(left)
+                    ).getUnprocessedItems();
+                } catch (final AmazonClientException ex) {
+                    throw new IOException(ex);
+                }
+                if (left == null || left.isEmpty()) {
+                    break;
+                }
+                DyVault.pause(attempt);
+            }
+        } finally {
+            aws.shutdown();
+        }
+        if (left != null && !left.isEmpty()) {
+            throw new IOException(
+                String.format(
+                    "%d vault item(s) not written after %d attempts",
+                    left.values().stream().mapToInt(List::size).sum(),
+                    DyVault.ATTEMPTS
+                )
+            );
+        }
+    }
+
+    /**
+     * Read one batch, retrying unprocessed keys.
+     * @param keys Keys, no more than {@link #KEYS}
+     * @return Values found, by keys
+     * @throws IOException If fails
+     */
+    private Map<String, String> read(final List<String> keys)
+        throws IOException {
+        final String name = this.table().name();
+        Map<String, KeysAndAttributes> left = Collections.singletonMap(
+            name,
+            new KeysAndAttributes()
+                .withConsistentRead(true)
+                .withKeys(
+                    keys.stream()
+                        .map(
+                            key -> Collections.singletonMap(
+                                "key", new AttributeValue(key)
+                            )
+                        )
+                        .collect(Collectors.toList())
+                )
+        );
+        final Map<String, String> found = new HashMap<>(keys.size());
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            for (int attempt = 0; attempt < DyVault.ATTEMPTS; ++attempt) {
+                final BatchGetItemResult result;
+                try {
+                    result = aws.batchGetItem(
+                        new BatchGetItemRequest().withRequestItems(left)
+                    );
+                } catch (final AmazonClientException ex) {
+                    throw new IOException(ex);
+                }
+                result.getResponses()
+                    .getOrDefault(name, Collections.emptyList())
+                    .forEach(
+                        item -> found.put(
+                            item.get("key").getS(), item.get("value").getS()
+                        )
+                    );
+                left = result.getUnprocessedKeys();
+                if (left == null || left.isEmpty()) {
+                    break;
+                }
+                DyVault.pause(attempt);
+            }
+        } finally {
+            aws.shutdown();
+        }
+        if (left != null && !left.isEmpty()) {
+            throw new IOException(
+                String.format(
+                    "%d vault key(s) not read after %d attempts",
+                    left.values().stream()
+                        .mapToInt(kaa -> kaa.getKeys().size()).sum(),
+                    DyVault.ATTEMPTS
+                )
+            );
+        }
+        return found;
+    }
+
+    /**
+     * Wait before the next attempt, longer after each one.
+     * @param attempt Number of the attempt just made, starting from zero
+     * @throws IOException If interrupted
+     */
+    private static void pause(final int attempt) throws IOException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(50L << attempt);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getLocalizedMessage());
+        }
+    }
+
     /**
      * Table to work with.
      * @return Table
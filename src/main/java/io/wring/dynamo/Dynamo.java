@@ -79,11 +79,15 @@ final class Dynamo implements Region {
                 );
             }
             final int port = Integer.parseInt(property);
-            region = new Region.Simple(new Credentials.Direct(creds, port));
+            region = new Region.Simple(
+                new ThrottledCredentials(new Credentials.Direct(creds, port))
+            );
             Logger.warn(Dynamo.class, "test DynamoDB at port #%d", port);
         } else {
             region = new Region.Prefixed(
-                new ReRegion(new Region.Simple(creds)),
+                new ReRegion(
+                    new Region.Simple(new ThrottledCredentials(creds))
+                ),
                 "wring-"
             );
         }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Text of an event, as an attribute in DynamoDB.
+ *
+ * <p>The text is stored as a binary attribute, where the first byte
+ * tells the format of the rest: {@link #PLAIN} UTF-8 or UTF-8 compressed
+ * by {@link #DEFLATE}. Short texts and texts that don't get shorter
+ * are stored plain. Attributes of type {@code S}, written before texts
+ * were compressed, are read as they are.</p>
+ *
+ * @since 1.0
+ */
+final class Packed {
+
+    /**
+     * Format marker of plain UTF-8.
+     */
+    private static final byte PLAIN = 0;
+
+    /**
+     * Format marker of deflated UTF-8.
+     */
+    private static final byte DEFLATE = 1;
+
+    /**
+     * Texts shorter than this are not compressed, in bytes.
+     */
+    private static final int MIN = 256;
+
+    /**
+     * Ctor.
+     */
+    private Packed() {
+        // utility class
+    }
+
+    /**
+     * Pack the text into an attribute.
+     * @param text The text
+     * @return Attribute
+     */
+    static AttributeValue pack(final String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] body = bytes;
+        byte format = Packed.PLAIN;
+        if (bytes.length >= Packed.MIN) {
+            final byte[] deflated = Packed.deflate(bytes);
+            if (deflated.length < bytes.length) {
+                body = deflated;
+                format = Packed.DEFLATE;
+            }
+        }
+        final byte[] packed = new byte[body.length + 1];
+        packed[0] = format;
+        System.arraycopy(body, 0, packed, 1, body.length);
+        return new AttributeValue().withB(ByteBuffer.wrap(packed));
+    }
+
+    /**
+     * Unpack the text from an attribute.
+     * @param attr The attribute
+     * @return The text
+     */
+    static String unpack(final AttributeValue attr) {
+        final String text;
+        if (attr.getB() == null) {
+            text = attr.getS();
+        } else {
+            final ByteBuffer buf = attr.getB().duplicate();
+            final byte format = buf.get();
+            final byte[] body = new byte[buf.remaining()];
+            buf.get(body);
+            if (format == Packed.PLAIN) {
+                text = new String(body, StandardCharsets.UTF_8);
+            } else if (format == Packed.DEFLATE) {
+                text = new String(Packed.inflate(body), StandardCharsets.UTF_8);
+            } else {
+                throw new IllegalStateException(
+                    String.format("Unknown format of text: %d", format)
+                );
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Compress.
+     * @param bytes Bytes to compress
+     * @return Compressed bytes
+     */
+    private static byte[] deflate(final byte[] bytes) {
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            final ByteArrayOutputStream out =
+                new ByteArrayOutputStream(bytes.length / 2);
+            final byte[] chunk = new byte[bytes.length];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompress.
+     * @param bytes Compressed bytes
+     * @return Bytes
+     */
+    private static byte[] inflate(final byte[] bytes) {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            final ByteArrayOutputStream out =
+                new ByteArrayOutputStream(bytes.length * 4);
+            final byte[] chunk = new byte[bytes.length * 4 + 1];
+            while (!inflater.finished()) {
+                final int len = inflater.inflate(chunk);
+                if (len == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Text is truncated");
+                }
+                out.write(chunk, 0, len);
+            }
+            return out.toByteArray();
+        } catch (final DataFormatException ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+}
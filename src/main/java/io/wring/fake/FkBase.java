@@ -58,4 +58,9 @@ public final class FkBase implements Base {
         return new FkVault();
     }
 
+    @Override
+    public int reconcile() {
+        return 0;
+    }
+
 }
@@ -45,6 +45,11 @@ public final class FkEvents implements Events {
         return Collections.singleton(new FkEvent());
     }
 
+    @Override
+    public int total(final int max) {
+        return Math.min(1, max);
+    }
+
     @Override
     public void post(final String title, final String text) {
         // nothing
@@ -55,4 +60,9 @@ public final class FkEvents implements Events {
         return new FkEvent();
     }
 
+    @Override
+    public Event brief(final String title) {
+        return new FkEvent();
+    }
+
 }
@@ -53,6 +53,7 @@ public final class FkPipe implements Pipe {
             new Directives()
                 .add("pipe")
                 .add("urn").set("urn:test:1").up()
+                .add("id").set("1").up()
                 .add("json").set("{}").up()
                 .up()
         );
@@ -77,7 +78,17 @@ public final class FkPipe implements Pipe {
     }
 
     @Override
-    public void status(final String text) {
+    public void status(final String text, final int posted) {
+        // nothing
+    }
+
+    @Override
+    public void failed(final String text) {
+        // nothing
+    }
+
+    @Override
+    public void postpone(final String text, final long time) {
         // nothing
     }
 }
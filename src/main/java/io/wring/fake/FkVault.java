@@ -30,6 +30,9 @@
 package io.wring.fake;
 
 import io.wring.model.Vault;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -44,8 +47,18 @@ public final class FkVault implements Vault {
         return Optional.empty();
     }
 
+    @Override
+    public Map<String, String> values(final Collection<String> keys) {
+        return Collections.emptyMap();
+    }
+
     @Override
     public void save(final String key, final Optional<String> value) {
         // nothing
     }
+
+    @Override
+    public void flush() {
+        // nothing
+    }
 }
@@ -29,6 +29,7 @@
  */
 package io.wring.model;
 
+import java.io.IOException;
 import java.util.Collection;
 
 /**
@@ -46,8 +47,8 @@ public interface Base {
     User user(String urn);
 
     /**
-     * All pipes available now.
-     * @return All pipes
+     * Pipes due to be processed now.
+     * @return Pipes, in the order they are due
      */
     Collection<Pipe> pipes();
 
@@ -57,4 +58,12 @@ public interface Base {
      */
     Vault vault();
 
+    /**
+     * Repair totals of events of all users, if they drifted away
+     * from the real numbers of events.
+     * @return How many users were checked
+     * @throws IOException If fails
+     */
+    int reconcile() throws IOException;
+
 }
@@ -45,6 +45,18 @@ public interface Events {
      */
     Iterable<Event> iterate() throws IOException;
 
+    /**
+     * How many events are there, but not more than the maximum.
+     *
+     * <p>It's cheaper than {@link #iterate()}, since events are
+     * counted, not fetched.</p>
+     *
+     * @param max Maximum to count to
+     * @return Total
+     * @throws IOException If fails
+     */
+    int total(int max) throws IOException;
+
     /**
      * Add a new event.
      * @param title Title
@@ -58,7 +70,18 @@ public interface Events {
      * @param title Unique title of the event
      * @return Event
      * @throws IOException If fails
+     * @throws IllegalArgumentException If there is no such event
      */
     Event event(String title) throws IOException;
 
+    /**
+     * Find an event by title, which renders without its texts,
+     * the same way events of {@link #iterate()} do.
+     * @param title Unique title of the event
+     * @return Event
+     * @throws IOException If fails
+     * @throws IllegalArgumentException If there is no such event
+     */
+    Event brief(String title) throws IOException;
+
 }
@@ -53,11 +53,36 @@ public interface Pipe {
     void delete() throws IOException;
 
     /**
-     * Set recent status.
+     * Set recent status and schedule the next run.
+     *
+     * <p>The fewer events the pipe produces, the later it runs
+     * next time.</p>
+     *
      * @param text Text of the status to set
+     * @param posted How many events were posted during the run
      * @throws IOException If fails
      * @since 0.17
      */
-    void status(String text) throws IOException;
+    void status(String text, int posted) throws IOException;
+
+    /**
+     * Set recent status after a failed run and schedule the next run.
+     *
+     * <p>Unlike {@link #status(String, int)}, it doesn't make the pipe
+     * run later, since a failure says nothing about how many events
+     * the pipe produces.</p>
+     *
+     * @param text Text of the status to set
+     * @throws IOException If fails
+     */
+    void failed(String text) throws IOException;
+
+    /**
+     * Set recent status and don't run it again before the given time.
+     * @param text Text of the status to set
+     * @param time When to run it next, in milliseconds
+     * @throws IOException If fails
+     */
+    void postpone(String text, long time) throws IOException;
 
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.model;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limit of concurrent calls to one downstream service.
+ *
+ * <p>When pipes run in virtual threads there is no pool size to hold
+ * them back, so every external service gets its own limit instead.
+ * The limit is configured by the {@code wring.limit.<name>} system
+ * property, for example {@code -Dwring.limit.github=16}.</p>
+ *
+ * @since 1.0
+ */
+public final class Throttle {
+
+    /**
+     * GitHub API.
+     */
+    public static final Throttle GITHUB = new Throttle("github", 32);
+
+    /**
+     * Telegram API.
+     */
+    public static final Throttle TELEGRAM = new Throttle("telegram", 4);
+
+    /**
+     * DynamoDB.
+     */
+    public static final Throttle DYNAMO = new Throttle("dynamo", 64);
+
+    /**
+     * Name of the downstream.
+     */
+    private final transient String name;
+
+    /**
+     * Permits.
+     */
+    private final transient Semaphore permits;
+
+    /**
+     * Ctor.
+     * @param label Name of the downstream
+     * @param dflt Default limit, if the property is not set
+     */
+    public Throttle(final String label, final int dflt) {
+        this(
+            label,
+            new Semaphore(
+                Integer.getInteger(
+                    String.format("wring.limit.%s", label), dflt
+                ),
+                true
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param label Name of the downstream
+     * @param sem Permits
+     */
+    public Throttle(final String label, final Semaphore sem) {
+        this.name = label;
+        this.permits = sem;
+    }
+
+    /**
+     * Wait for a free slot; it must be released with {@link #release()}.
+     * @throws IOException If interrupted while waiting
+     */
+    public void acquire() throws IOException {
+        try {
+            this.permits.acquire();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(
+                String.format("Interrupted while waiting for %s", this.name)
+            );
+        }
+    }
+
+    /**
+     * Give the slot back.
+     */
+    public void release() {
+        this.permits.release();
+    }
+
+}
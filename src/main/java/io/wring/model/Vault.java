@@ -30,6 +30,8 @@
 package io.wring.model;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -47,6 +49,14 @@ public interface Vault {
      */
     Optional<String> value(String key) throws IOException;
 
+    /**
+     * Get many values at once.
+     * @param keys The keys
+     * @return Values found, by keys (the keys not found are absent)
+     * @throws IOException If fails
+     */
+    Map<String, String> values(Collection<String> keys) throws IOException;
+
     /**
      * Put value by key.
      * @param key The key
@@ -55,4 +65,10 @@ public interface Vault {
      */
     void save(String key, Optional<String> value) throws IOException;
 
+    /**
+     * Write all changes that are not written yet.
+     * @throws IOException If fails
+     */
+    void flush() throws IOException;
+
 }
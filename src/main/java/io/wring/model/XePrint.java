@@ -29,30 +29,89 @@
  */
 package io.wring.model;
 
-import com.jcabi.xml.XML;
-import com.jcabi.xml.XMLDocument;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import org.cactoos.scalar.Sticky;
+import org.cactoos.scalar.Unchecked;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 import org.xembly.Directive;
 import org.xembly.Xembler;
 
 /**
  * Print.
+ *
+ * <p>The DOM is built at most once per instance and only if it's
+ * really needed: simple paths like {@code /event/title/text()} are
+ * resolved straight from the directives, as long as they are
+ * nothing but {@code ADD}, {@code SET} and {@code UP}.</p>
+ *
  * @since 1.0
  */
 public final class XePrint {
 
+    /**
+     * Placeholders in the template.
+     */
+    private static final Pattern TEMPLATE = Pattern.compile("\\{([^}]+)}");
+
+    /**
+     * Simple path, which doesn't need a DOM.
+     */
+    private static final Pattern SIMPLE = Pattern.compile(
+        "(/[a-zA-Z_][\\w.-]*)+/text\\(\\)"
+    );
+
+    /**
+     * XML entity in the directive.
+     */
+    private static final Pattern ENTITY = Pattern.compile(
+        "&(lt|gt|amp|apos|quot|#x[0-9a-fA-F]+|#[0-9]+);"
+    );
+
+    /**
+     * Compiled XPath expressions, by their texts; they are all
+     * constants in the code, that's why the map doesn't grow.
+     */
+    private static final ConcurrentMap<String, XPathExpression> XPATHS =
+        new ConcurrentHashMap<>(0);
+
     /**
      * Directives.
      */
     private final transient Iterable<Directive> dirs;
 
+    /**
+     * DOM, built from the directives.
+     */
+    private final transient Unchecked<Node> dom;
+
+    /**
+     * Tree of elements, read from the directives, if they are simple.
+     */
+    private final transient Unchecked<Optional<XePrint.Element>> tree;
+
     /**
      * Ctor.
      * @param list List of Xembly directives
      */
     public XePrint(final Iterable<Directive> list) {
         this.dirs = list;
+        this.dom = new Unchecked<>(
+            new Sticky<>(() -> new Xembler(this.dirs).domQuietly())
+        );
+        this.tree = new Unchecked<>(
+            new Sticky<>(() -> XePrint.tree(this.dirs))
+        );
     }
 
     /**
@@ -61,21 +120,242 @@ public final class XePrint {
      * @return Plain text
      */
     public String text(final CharSequence pattern) {
-        final XML xml = new XMLDocument(
-            new Xembler(this.dirs).domQuietly()
-        );
-        final Pattern ptn = Pattern.compile("\\{([^}]+)}");
-        final Matcher mtr = ptn.matcher(pattern);
+        final Matcher mtr = XePrint.TEMPLATE.matcher(pattern);
         final StringBuffer out = new StringBuffer(pattern.length());
         while (mtr.find()) {
             mtr.appendReplacement(
-                out, xml.xpath(mtr.group(1)).get(0)
-                    .replace("\\", "\\\\")
-                    .replace("$", "\\$")
+                out, Matcher.quoteReplacement(this.first(mtr.group(1)))
             );
         }
         mtr.appendTail(out);
         return out.toString();
     }
 
+    /**
+     * Find the first text by XPath.
+     * @param path The XPath
+     * @return The text
+     */
+    private String first(final String path) {
+        final Optional<XePrint.Element> root = this.tree.value();
+        final String text;
+        if (root.isPresent() && XePrint.SIMPLE.matcher(path).matches()) {
+            text = root.get().find(
+                path.substring(1, path.lastIndexOf('/')).split("/"), 0
+            );
+        } else {
+            text = this.xpath(path);
+        }
+        if (text == null) {
+            throw new IndexOutOfBoundsException(
+                String.format("Nothing found by \"%s\"", path)
+            );
+        }
+        return text;
+    }
+
+    /**
+     * Find the first text by XPath in the DOM.
+     * @param path The XPath
+     * @return The text or NULL if nothing found
+     */
+    private String xpath(final String path) {
+        final XPathExpression expr = XePrint.XPATHS.computeIfAbsent(
+            path, XePrint::compile
+        );
+        final NodeList nodes;
+        try {
+            synchronized (expr) {
+                nodes = NodeList.class.cast(
+                    expr.evaluate(this.dom.value(), XPathConstants.NODESET)
+                );
+            }
+        } catch (final XPathExpressionException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+        String text = null;
+        if (nodes.getLength() > 0) {
+            text = nodes.item(0).getTextContent();
+        }
+        return text;
+    }
+
+    /**
+     * Compile XPath.
+     * @param path The XPath
+     * @return Expression
+     */
+    private static XPathExpression compile(final String path) {
+        try {
+            return XPathFactory.newInstance().newXPath().compile(path);
+        } catch (final XPathExpressionException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    /**
+     * Read the tree of elements from the directives.
+     * @param list Xembly directives
+     * @return The document or empty if the directives are not simple
+     */
+    private static Optional<XePrint.Element> tree(
+        final Iterable<Directive> list) {
+        final XePrint.Element doc = new XePrint.Element(null);
+        XePrint.Element current = doc;
+        boolean simple = true;
+        for (final Directive dir : list) {
+            final String line = dir.toString();
+            if (line.startsWith("ADD \"")) {
+                current = current.add(XePrint.arg(line));
+            } else if (line.startsWith("SET \"")) {
+                current.set(XePrint.arg(line));
+            } else if ("UP".equals(line) && current.parent != null) {
+                current = current.parent;
+            } else {
+                simple = false;
+                break;
+            }
+        }
+        final Optional<XePrint.Element> root;
+        if (simple) {
+            root = Optional.of(doc);
+        } else {
+            root = Optional.empty();
+        }
+        return root;
+    }
+
+    /**
+     * Get the argument of the directive, unescaped.
+     * @param line The directive, like {@code SET "text"}
+     * @return The argument
+     */
+    private static String arg(final String line) {
+        final Matcher mtr = XePrint.ENTITY.matcher(
+            line.substring(line.indexOf('"') + 1, line.length() - 1)
+        );
+        final StringBuffer out = new StringBuffer(line.length());
+        while (mtr.find()) {
+            final String entity = mtr.group(1);
+            final String symbol;
+            if ("lt".equals(entity)) {
+                symbol = "<";
+            } else if ("gt".equals(entity)) {
+                symbol = ">";
+            } else if ("amp".equals(entity)) {
+                symbol = "&";
+            } else if ("apos".equals(entity)) {
+                symbol = "'";
+            } else if ("quot".equals(entity)) {
+                symbol = "\"";
+            } else if (entity.startsWith("#x")) {
+                symbol = new String(
+                    Character.toChars(Integer.parseInt(entity.substring(2), 16))
+                );
+            } else {
+                symbol = new String(
+                    Character.toChars(Integer.parseInt(entity.substring(1)))
+                );
+            }
+            mtr.appendReplacement(out, Matcher.quoteReplacement(symbol));
+        }
+        mtr.appendTail(out);
+        return out.toString();
+    }
+
+    /**
+     * Element, as the directives made it.
+     *
+     * @since 1.0
+     */
+    private static final class Element {
+
+        /**
+         * Parent or NULL if it's the document.
+         */
+        private final transient XePrint.Element parent;
+
+        /**
+         * Name.
+         */
+        private final transient String name;
+
+        /**
+         * Children.
+         */
+        private final transient List<XePrint.Element> kids;
+
+        /**
+         * Text or NULL if there is no text.
+         */
+        private transient String text;
+
+        /**
+         * Ctor.
+         * @param prnt Parent
+         */
+        Element(final XePrint.Element prnt) {
+            this(prnt, "");
+        }
+
+        /**
+         * Ctor.
+         * @param prnt Parent
+         * @param label Name
+         */
+        Element(final XePrint.Element prnt, final String label) {
+            this.parent = prnt;
+            this.name = label;
+            this.kids = new ArrayList<>(1);
+        }
+
+        /**
+         * Add a child.
+         * @param label Name of it
+         * @return The child
+         */
+        public XePrint.Element add(final String label) {
+            final XePrint.Element kid = new XePrint.Element(this, label);
+            this.kids.add(kid);
+            return kid;
+        }
+
+        /**
+         * Set the text, removing all children, as SET does.
+         * @param txt The text
+         */
+        public void set(final String txt) {
+            this.kids.clear();
+            if (txt.isEmpty()) {
+                this.text = null;
+            } else {
+                this.text = txt;
+            }
+        }
+
+        /**
+         * Find the first text by the path, in document order.
+         * @param steps Names of elements on the path
+         * @param pos Position in the path
+         * @return The text or NULL if nothing found
+         */
+        public String find(final String[] steps, final int pos) {
+            String found = null;
+            if (pos == steps.length) {
+                found = this.text;
+            } else {
+                for (final XePrint.Element kid : this.kids) {
+                    if (kid.name.equals(steps[pos])) {
+                        found = kid.find(steps, pos + 1);
+                    }
+                    if (found != null) {
+                        break;
+                    }
+                }
+            }
+            return found;
+        }
+
+    }
+
 }
@@ -29,7 +29,6 @@
  */
 package io.wring.tk;
 
-import com.google.common.collect.Iterables;
 import io.wring.model.Base;
 import java.io.IOException;
 import javax.json.Json;
@@ -61,9 +60,9 @@ final class TkApiTotal implements Take {
 
     @Override
     public Response act(final Request req) throws IOException {
-        final int total = Iterables.size(
-            this.base.user(new RqUser(req).urn()).events().iterate()
-        );
+        final int total = this.base.user(new RqUser(req).urn())
+            .events()
+            .total(Integer.MAX_VALUE);
         return new RsJson(
             Json.createObjectBuilder().add(
                 "total",
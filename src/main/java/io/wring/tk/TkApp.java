@@ -168,6 +168,7 @@ public final class TkApp extends TkWrap {
                     new TkFork(
                         new FkRegex("/", new TkEvents(base)),
                         new FkRegex("/favicon", new TkFavicon(base)),
+                        new FkRegex("/event", new TkEvent(base)),
                         new FkRegex("/pipes", new TkPipes(base)),
                         new FkRegex("/api", new TkApi()),
                         new FkRegex("/api/total.json", new TkApiTotal(base)),
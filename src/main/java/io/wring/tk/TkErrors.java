@@ -101,9 +101,9 @@ public final class TkErrors implements Take {
      */
     private static XeSource source(final Error error) throws IOException {
         final Iterable<Directive> dirs = error.asXembly();
-        final String title = new XePrint(dirs).text("{/error/title/text()}");
-        final String time =
-            new XePrint(dirs).text("{/error/time/text()}");
+        final XePrint print = new XePrint(dirs);
+        final String title = print.text("{/error/title/text()}");
+        final String time = print.text("{/error/time/text()}");
         return new XeDirectives(
             new Directives()
                 .append(dirs)
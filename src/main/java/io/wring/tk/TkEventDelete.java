@@ -34,6 +34,7 @@ import io.wring.model.Event;
 import io.wring.model.User;
 import io.wring.model.XePrint;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.logging.Level;
 import org.takes.Request;
 import org.takes.Response;
@@ -63,17 +64,34 @@ final class TkEventDelete implements Take {
         this.base = bse;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The event is brief, since its texts are not needed
+     * to check the hash.</p>
+     */
     @Override
     public Response act(final Request req) throws IOException {
         final User user = this.base.user(new RqUser(req).urn());
         final Href href = new RqHref.Base(req).href();
-        final Event event = user.events().event(
-            href.param("title").iterator().next()
-        );
-        final String hash = new XePrint(event.asXembly()).text(
-            "{/event/md5/text()}"
-        );
-        if (!hash.equals(href.param("hash").iterator().next())) {
+        final Iterator<String> titles = href.param("title").iterator();
+        if (!titles.hasNext()) {
+            throw new RsForward(
+                new RsFlash("The title of the event is missing", Level.WARNING)
+            );
+        }
+        final Event event;
+        try {
+            event = user.events().brief(titles.next());
+        } catch (final IllegalArgumentException ex) {
+            throw new RsForward(
+                new RsFlash("The event is not found", Level.WARNING)
+            );
+        }
+        final XePrint print = new XePrint(event.asXembly());
+        final String hash = print.text("{/event/md5/text()}");
+        final Iterator<String> hashes = href.param("hash").iterator();
+        if (!hashes.hasNext() || !hash.equals(hashes.next())) {
             throw new RsForward(
                 new RsFlash(
                     "Reload the page, the event has changed",
@@ -81,7 +99,7 @@ final class TkEventDelete implements Take {
                 )
             );
         }
-        final String msg = new XePrint(event.asXembly()).text(
+        final String msg = print.text(
             "Event \"{/event/title/text()}\" deleted"
         );
         event.delete();
@@ -92,18 +92,25 @@ final class TkEvents implements Take {
     }
 
     /**
-     * Convert event to Xembly.
+     * Convert event to Xembly, with links to act on it.
      * @param event The event
      * @return Xembly
      * @throws IOException If fails
      */
-    private static XeSource source(final Event event) throws IOException {
+    static XeSource source(final Event event) throws IOException {
         final Iterable<Directive> dirs = event.asXembly();
-        final String title = new XePrint(dirs).text("{/event/title/text()}");
-        final String hash = new XePrint(dirs).text("{/event/md5/text()}");
+        final XePrint print = new XePrint(dirs);
+        final String title = print.text("{/event/title/text()}");
+        final String hash = print.text("{/event/md5/text()}");
         return new XeDirectives(
             new Directives()
                 .append(dirs)
+                .append(
+                    new XeLink(
+                        "open",
+                        new Href("/event").with("title", title)
+                    ).toXembly()
+                )
                 .append(
                     new XeLink(
                         "delete",
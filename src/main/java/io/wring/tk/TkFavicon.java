@@ -29,7 +29,6 @@
  */
 package io.wring.tk;
 
-import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Tv;
 import io.wring.model.Base;
 import java.awt.Color;
@@ -39,15 +38,27 @@ import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.imageio.ImageIO;
 import org.takes.Request;
 import org.takes.Response;
 import org.takes.Take;
+import org.takes.rq.RqHeaders;
 import org.takes.rs.RsWithBody;
+import org.takes.rs.RsWithHeaders;
+import org.takes.rs.RsWithStatus;
 import org.takes.rs.RsWithType;
 
 /**
- * List of events.
+ * Favicon with the number of events in the inbox.
+ *
+ * <p>There are only {@link #MAX} + 1 different icons, so each of them is
+ * rendered once and kept in memory, with a strong ETag. Browsers are told
+ * to revalidate the icon on every request and get
+ * {@code 304 Not Modified}, when the number didn't change.</p>
  *
  * @since 0.5
  */
@@ -58,6 +69,12 @@ final class TkFavicon implements Take {
      */
     private static final int MAX = 20;
 
+    /**
+     * Icons rendered, by the number shown on them.
+     */
+    private static final ConcurrentMap<Integer, TkFavicon.Gif> ICONS =
+        new ConcurrentHashMap<>(0);
+
     /**
      * Base.
      */
@@ -73,47 +90,116 @@ final class TkFavicon implements Take {
 
     @Override
     public Response act(final Request req) throws IOException {
-        final int width = 64;
-        final int height = 64;
-        final BufferedImage image = new BufferedImage(
-            width, height, BufferedImage.TYPE_INT_RGB
+        final int total = this.base.user(new RqUser(req).urn())
+            .events()
+            .total(TkFavicon.MAX);
+        final TkFavicon.Gif gif = TkFavicon.ICONS.computeIfAbsent(
+            Math.min(total, TkFavicon.MAX), TkFavicon.Gif::new
         );
-        final Graphics2D graph = Graphics2D.class.cast(image.getGraphics());
-        // @checkstyle MagicNumber (1 line)
-        graph.setColor(new Color(0x36, 0x7a, 0xc3));
-        graph.fillRect(0, 0, width, height);
-        final int total = Iterables.size(
-            Iterables.limit(
-                this.base.user(new RqUser(req).urn()).events().iterate(),
-                TkFavicon.MAX
-            )
+        final Response response;
+        if (new RqHeaders.Smart(req).header("If-None-Match")
+            .stream()
+            .anyMatch(tag -> tag.contains(gif.etag()))) {
+            response = new RsWithStatus(HttpURLConnection.HTTP_NOT_MODIFIED);
+        } else {
+            response = new RsWithType(
+                new RsWithBody(gif.bytes()),
+                "image/gif"
+            );
+        }
+        return new RsWithHeaders(
+            response,
+            String.format("ETag: %s", gif.etag()),
+            "Cache-Control: private, no-cache"
         );
-        if (total > 0) {
-            final String text;
-            if (total >= TkFavicon.MAX) {
-                text = String.format("%d", TkFavicon.MAX);
-            } else {
-                text = Integer.toString(total);
-            }
-            graph.setColor(Color.WHITE);
-            graph.setFont(new Font(Font.SANS_SERIF, Font.BOLD, height / 2));
-            graph.setRenderingHint(
-                RenderingHints.KEY_ANTIALIASING,
-                RenderingHints.VALUE_ANTIALIAS_ON
+    }
+
+    /**
+     * Icon, rendered as GIF.
+     *
+     * @since 1.0
+     */
+    private static final class Gif {
+
+        /**
+         * Bytes of the GIF.
+         */
+        private final transient byte[] body;
+
+        /**
+         * Strong ETag of it.
+         */
+        private final transient String tag;
+
+        /**
+         * Ctor.
+         * @param total The number to show
+         */
+        Gif(final int total) {
+            this.body = TkFavicon.Gif.render(total);
+            this.tag = String.format(
+                "\"%d-%08x\"", total, Arrays.hashCode(this.body)
+            );
+        }
+
+        /**
+         * Bytes of the GIF.
+         * @return Bytes
+         */
+        public byte[] bytes() {
+            return this.body.clone();
+        }
+
+        /**
+         * ETag of it, in quotes.
+         * @return ETag
+         */
+        public String etag() {
+            return this.tag;
+        }
+
+        /**
+         * Render the icon.
+         * @param total The number to show
+         * @return Bytes of the GIF
+         */
+        private static byte[] render(final int total) {
+            final int width = 64;
+            final int height = 64;
+            final BufferedImage image = new BufferedImage(
+                width, height, BufferedImage.TYPE_INT_RGB
             );
-            graph.drawString(
-                text,
-                width - width / Tv.TEN
-                    - graph.getFontMetrics().stringWidth(text),
-                height - height / Tv.TEN
+            final Graphics2D graph = Graphics2D.class.cast(
+                image.getGraphics()
             );
+            // @checkstyle MagicNumber (1 line)
+            graph.setColor(new Color(0x36, 0x7a, 0xc3));
+            graph.fillRect(0, 0, width, height);
+            if (total > 0) {
+                final String text = Integer.toString(total);
+                graph.setColor(Color.WHITE);
+                graph.setFont(
+                    new Font(Font.SANS_SERIF, Font.BOLD, height / 2)
+                );
+                graph.setRenderingHint(
+                    RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON
+                );
+                graph.drawString(
+                    text,
+                    width - width / Tv.TEN
+                        - graph.getFontMetrics().stringWidth(text),
+                    height - height / Tv.TEN
+                );
+            }
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try {
+                ImageIO.write(image, "gif", baos);
+            } catch (final IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return baos.toByteArray();
         }
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(image, "gif", baos);
-        return new RsWithType(
-            new RsWithBody(baos.toByteArray()),
-            "image/gif"
-        );
     }
 
 }
@@ -57,14 +57,16 @@ OF THE POSSIBILITY OF SUCH DAMAGE.
         <xsl:value-of select="rank"/>
       </code>
       <xsl:text> </xsl:text>
-      <xsl:value-of select="title"/>
+      <a href="{links/link[@rel='open']/@href}" title="read it all">
+        <xsl:value-of select="title"/>
+      </a>
       <xsl:text> </xsl:text>
       <a href="{links/link[@rel='delete']/@href}" title="delete it forever">
         <xsl:text>delete</xsl:text>
       </a>
     </p>
     <pre>
-      <xsl:value-of select="html" disable-output-escaping="yes"/>
+      <xsl:value-of select="preview"/>
     </pre>
   </xsl:template>
 </xsl:stylesheet>
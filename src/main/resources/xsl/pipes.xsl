@@ -114,6 +114,15 @@ OF THE POSSIBILITY OF SUCH DAMAGE.
       </a>
       <xsl:text> to find it.</xsl:text>
     </p>
+    <p>
+      <code>
+        <xsl:text>interval</xsl:text>
+      </code>
+      <xsl:text> may contain the longest time, in minutes, between two checks</xsl:text>
+      <xsl:text> of a quiet pipe (30 by default).</xsl:text>
+      <xsl:text> The pipe is checked every minute while it brings new events</xsl:text>
+      <xsl:text> and less and less often when it doesn't.</xsl:text>
+    </p>
   </xsl:template>
   <xsl:template match="pipes">
     <xsl:apply-templates select="pipe"/>
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import io.wring.model.Event;
+import io.wring.model.Events;
+import java.io.IOException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link BatchedEvents}.
+ * @since 1.0
+ */
+public final class BatchedEventsTest {
+
+    /**
+     * BatchedEvents can merge posts with the same title.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void mergesPostsWithSameTitle() throws Exception {
+        final Events events = Mockito.mock(Events.class);
+        final Event event = Mockito.mock(Event.class);
+        Mockito.doReturn(event).when(events).event(Mockito.anyString());
+        final BatchedEvents batched = new BatchedEvents(events);
+        batched.post("a", "first");
+        batched.post("b", "other");
+        batched.post("a", "second");
+        batched.event("a").vote(2);
+        Mockito.verify(events, Mockito.never())
+            .post(Mockito.anyString(), Mockito.anyString());
+        batched.flush();
+        Mockito.verify(events).post("a", "second\n\n---\n\nfirst");
+        Mockito.verify(events).post("b", "other");
+        Mockito.verify(event).vote(1 + 2);
+    }
+
+    /**
+     * BatchedEvents can retry failed writes.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void retriesFailedWrites() throws Exception {
+        final Events events = Mockito.mock(Events.class);
+        Mockito.doThrow(new IOException("busy")).doNothing()
+            .when(events).post(Mockito.anyString(), Mockito.anyString());
+        final BatchedEvents batched = new BatchedEvents(events);
+        batched.post("c", "text");
+        batched.flush();
+        Mockito.verify(events, Mockito.times(2)).post("c", "text");
+    }
+
+    /**
+     * BatchedEvents can give up after the second failure.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void failsAfterRetry() throws Exception {
+        final Events events = Mockito.mock(Events.class);
+        Mockito.doThrow(new IOException("down"))
+            .when(events).post(Mockito.anyString(), Mockito.anyString());
+        final BatchedEvents batched = new BatchedEvents(events);
+        batched.post("d", "body");
+        Assertions.assertThrows(IOException.class, batched::flush);
+    }
+
+    /**
+     * BatchedEvents can retry all failed writes and name them all.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void namesAllFailedWrites() throws Exception {
+        final Events events = Mockito.mock(Events.class);
+        Mockito.doThrow(new IOException("gone"))
+            .when(events).post(Mockito.eq("e"), Mockito.anyString());
+        Mockito.doThrow(new IOException("lost"))
+            .when(events).post(Mockito.eq("f"), Mockito.anyString());
+        final BatchedEvents batched = new BatchedEvents(events);
+        batched.post("e", "one");
+        batched.post("f", "two");
+        batched.post("g", "three");
+        MatcherAssert.assertThat(
+            Assertions.assertThrows(IOException.class, batched::flush)
+                .getMessage(),
+            Matchers.allOf(
+                Matchers.containsString("\"e\""),
+                Matchers.containsString("\"f\"")
+            )
+        );
+        Mockito.verify(events, Mockito.times(2)).post("e", "one");
+        Mockito.verify(events, Mockito.times(2)).post("f", "two");
+        Mockito.verify(events).post("g", "three");
+    }
+
+}
@@ -29,6 +29,7 @@
  */
 package io.wring.agents;
 
+import com.pengrad.telegrambot.TelegramBot;
 import io.wring.fake.FkBase;
 import io.wring.fake.FkPipe;
 import io.wring.model.Base;
@@ -50,7 +51,10 @@ public final class CycleTest {
     public void processesSinglePipe() throws Exception {
         final Base base = new FkBase();
         final Pipe pipe = new FkPipe();
-        new Cycle(base).exec(pipe);
+        try (TelegramQueue queue =
+            new TelegramQueue(new TelegramBot(""))) {
+            new Cycle(base, queue).exec(pipe);
+        }
     }
 
     /**
@@ -64,10 +68,14 @@ public final class CycleTest {
             new Directives()
                 .add("pipe")
                 .add("urn").set("urn:test:1").up()
+                .add("id").set("1").up()
                 .add("json").set("{\"a\":\"/@[a-z0-9\\\\-]\\\\s+\"}").up()
                 .up()
         );
-        new Cycle(base).exec(pipe);
+        try (TelegramQueue queue =
+            new TelegramQueue(new TelegramBot(""))) {
+            new Cycle(base, queue).exec(pipe);
+        }
     }
 
 }
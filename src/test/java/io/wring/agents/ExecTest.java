@@ -29,10 +29,13 @@
  */
 package io.wring.agents;
 
+import io.wring.fake.FkBase;
 import io.wring.fake.FkPipe;
 import io.wring.model.Errors;
 import io.wring.model.Events;
+import io.wring.model.Pipe;
 import java.io.IOException;
+import javax.json.Json;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.hamcrest.collection.IsIterableWithSize;
@@ -56,7 +59,9 @@ public final class ExecTest {
     public void catchesExceptions() throws Exception {
         final Agent agent = Mockito.mock(Agent.class);
         final Events events = Mockito.mock(Events.class);
-        Mockito.doThrow(new IOException("<bug>")).when(agent).push(events);
+        Mockito.doThrow(new IOException("<bug>")).when(agent).push(
+            Mockito.any(Events.class)
+        );
         new Exec(agent, events, new FkPipe()).run();
         Mockito.verify(events).post(
             MockitoHamcrest.argThat(
@@ -72,6 +77,39 @@ public final class ExecTest {
         );
     }
 
+    /**
+     * Exec can report how many events were posted.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void reportsPostedEvents() throws Exception {
+        final Pipe pipe = Mockito.mock(Pipe.class);
+        new Exec(
+            new FkAgent(new FkBase(), Json.createObjectBuilder().build()),
+            Mockito.mock(Events.class),
+            pipe
+        ).run();
+        Mockito.verify(pipe).status("done", 1);
+    }
+
+    /**
+     * Exec can report a failed run, which doesn't postpone the pipe.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void reportsFailures() throws Exception {
+        final Agent agent = Mockito.mock(Agent.class);
+        Mockito.doThrow(new IOException("oops")).when(agent).push(
+            Mockito.any(Events.class)
+        );
+        final Pipe pipe = Mockito.mock(Pipe.class);
+        new Exec(agent, Mockito.mock(Events.class), pipe).run();
+        Mockito.verify(pipe).failed("java.io.IOException");
+        Mockito.verify(pipe, Mockito.never()).status(
+            Mockito.anyString(), Mockito.anyInt()
+        );
+    }
+
     /**
      * Exec can register an error.
      * @throws Exception If some problem inside
@@ -82,7 +120,9 @@ public final class ExecTest {
         final Agent agent = Mockito.mock(Agent.class);
         final Events events = Mockito.mock(Events.class);
         final Errors errors = new Errors.Simple();
-        Mockito.doThrow(new IOException("<error>")).when(agent).push(events);
+        Mockito.doThrow(new IOException("<error>")).when(agent).push(
+            Mockito.any(Events.class)
+        );
         new Exec(agent, events, new FkPipe(), errors).run();
         MatcherAssert.assertThat(
             "Could not register error",
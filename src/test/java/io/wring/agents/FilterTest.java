@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import com.jcabi.aspects.Tv;
+import io.wring.model.Errors;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link Filter}.
+ * @since 1.0
+ */
+public final class FilterTest {
+
+    /**
+     * Filter can find literal rules, overlapping each other.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void findsLiterals() throws Exception {
+        final Filter filter = new Filter(
+            Arrays.asList("he", "she", "hers", "his"),
+            Collections.emptyList()
+        );
+        MatcherAssert.assertThat(
+            filter.find(new Errors.Simple(), "ushers"),
+            Matchers.equalTo(Optional.of("she"))
+        );
+        MatcherAssert.assertThat(
+            filter.find(new Errors.Simple(), "ahishe"),
+            Matchers.equalTo(Optional.of("his"))
+        );
+        MatcherAssert.assertThat(
+            filter.find(new Errors.Simple(), "hxs", "sh"),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+
+    /**
+     * Filter can find regular expressions in any of the texts.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void findsRegexes() throws Exception {
+        final Filter filter = new Filter(
+            Collections.singletonList("[x]"),
+            Collections.singletonList(Pattern.compile("b[a-z]+d"))
+        );
+        MatcherAssert.assertThat(
+            filter.find(new Errors.Simple(), "nothing", "a bird"),
+            Matchers.equalTo(Optional.of("b[a-z]+d"))
+        );
+        MatcherAssert.assertThat(
+            filter.find(new Errors.Simple(), "a [x] here"),
+            Matchers.equalTo(Optional.of("[x]"))
+        );
+    }
+
+    /**
+     * Filter can disable a regular expression that takes too long.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void disablesSlowRegexes() throws Exception {
+        final Filter filter = new Filter(
+            Collections.emptyList(),
+            Arrays.asList(Pattern.compile("(a+)+\\1$"), Pattern.compile("!")),
+            TimeUnit.SECONDS.toNanos(1L),
+            100_000L
+        );
+        final Errors errors = Mockito.mock(Errors.class);
+        final String text = String.join(
+            "", Collections.nCopies(Tv.FIFTY, "a")
+        ).concat("!");
+        MatcherAssert.assertThat(
+            filter.find(errors, text), Matchers.equalTo(Optional.of("!"))
+        );
+        MatcherAssert.assertThat(
+            filter.find(errors, text), Matchers.equalTo(Optional.of("!"))
+        );
+        Mockito.verify(errors).register(
+            Mockito.eq("Rule \"(a+)+\\1$\" is disabled"), Mockito.anyString()
+        );
+    }
+
+    /**
+     * Filter can tell literals from regular expressions.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void tellsLiterals() throws Exception {
+        MatcherAssert.assertThat(Filter.literal("@bot-1"), Matchers.is(true));
+        MatcherAssert.assertThat(Filter.literal("a.b"), Matchers.is(false));
+    }
+
+}
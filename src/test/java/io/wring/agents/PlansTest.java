@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Plans}.
+ * @since 1.0
+ */
+public final class PlansTest {
+
+    /**
+     * Plans can reuse the plan while the JSON stays the same.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void reusesPlanOfUnchangedJson() throws Exception {
+        final Plans plans = new Plans();
+        final String key = "urn:test:1#1";
+        final String json = "{\"ignore\":[\"a\"]}";
+        final Plan plan = plans.plan(key, json);
+        MatcherAssert.assertThat(
+            plans.plan(key, new StringBuilder(json).toString()),
+            Matchers.sameInstance(plan)
+        );
+        MatcherAssert.assertThat(
+            plans.plan(key, "{\"ignore\":[\"b\"]}"),
+            Matchers.not(Matchers.sameInstance(plan))
+        );
+    }
+
+    /**
+     * Plans can forget plans that were not used recently.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void forgetsLeastRecentlyUsedPlans() throws Exception {
+        final Plans plans = new Plans(2);
+        final String json = "{}";
+        final Plan first = plans.plan("urn:test:2#1", json);
+        final Plan second = plans.plan("urn:test:2#2", json);
+        plans.plan("urn:test:2#1", json);
+        plans.plan("urn:test:2#3", json);
+        MatcherAssert.assertThat(
+            plans.plan("urn:test:2#1", json),
+            Matchers.sameInstance(first)
+        );
+        MatcherAssert.assertThat(
+            plans.plan("urn:test:2#2", json),
+            Matchers.not(Matchers.sameInstance(second))
+        );
+    }
+
+}
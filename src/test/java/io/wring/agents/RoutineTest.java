@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import io.wring.fake.FkUser;
+import io.wring.model.Base;
+import io.wring.model.Pipe;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.xembly.Directives;
+
+/**
+ * Test case for {@link Routine}.
+ * @since 1.0
+ */
+public final class RoutineTest {
+
+    /**
+     * Routine can skip a pipe, which is still running.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void skipsRunningPipes() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Pipe pipe = Mockito.mock(Pipe.class);
+        Mockito.doReturn(
+            new Directives()
+                .add("pipe")
+                .add("urn").set("urn:test:1").up()
+                .add("id").set("1").up()
+                .add("json").set("{}").up()
+                .up()
+        ).when(pipe).asXembly();
+        Mockito.doAnswer(
+            inv -> latch.await(1L, TimeUnit.MINUTES)
+        ).when(pipe).status(
+            Mockito.anyString(), Mockito.anyInt()
+        );
+        final Base base = Mockito.mock(Base.class);
+        Mockito.doReturn(Collections.singleton(pipe)).when(base).pipes();
+        Mockito.doReturn(new FkUser()).when(base).user(Mockito.anyString());
+        try (Routine routine = new Routine(base, 2)) {
+            MatcherAssert.assertThat(routine.call(), Matchers.equalTo(1));
+            MatcherAssert.assertThat(routine.call(), Matchers.equalTo(0));
+            latch.countDown();
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import com.pengrad.telegrambot.Callback;
+import com.pengrad.telegrambot.TelegramBot;
+import com.pengrad.telegrambot.model.ResponseParameters;
+import com.pengrad.telegrambot.request.SendMessage;
+import com.pengrad.telegrambot.response.SendResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link TelegramQueue}.
+ * @since 1.0
+ */
+@SuppressWarnings("unchecked")
+public final class TelegramQueueTest {
+
+    /**
+     * TelegramQueue can send messages to one chat as one.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void coalescesMessagesToOneChat() throws Exception {
+        final TelegramBot bot = Mockito.mock(TelegramBot.class);
+        final SendResponse rsp = Mockito.mock(SendResponse.class);
+        Mockito.doReturn(true).when(rsp).isOk();
+        Mockito.doAnswer(
+            inv -> {
+                inv.getArgument(1, Callback.class).onResponse(
+                    inv.getArgument(0), rsp
+                );
+                return null;
+            }
+        ).when(bot).execute(
+            Mockito.any(SendMessage.class), Mockito.any(Callback.class)
+        );
+        try (TelegramQueue queue = new TelegramQueue(bot)) {
+            queue.post("1", "first");
+            queue.post("1", "second");
+            queue.start();
+            final ArgumentCaptor<SendMessage> msg =
+                ArgumentCaptor.forClass(SendMessage.class);
+            Mockito.verify(bot, Mockito.timeout(10_000L)).execute(
+                msg.capture(), Mockito.any(Callback.class)
+            );
+            MatcherAssert.assertThat(
+                msg.getValue().getParameters().get("text"),
+                Matchers.equalTo("first\n\nsecond")
+            );
+            TelegramQueueTest.drain(queue);
+            MatcherAssert.assertThat(queue.depth(), Matchers.equalTo(0));
+        }
+    }
+
+    /**
+     * TelegramQueue can retry when Telegram asks to wait.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void retriesAfterTooManyRequests() throws Exception {
+        final TelegramBot bot = Mockito.mock(TelegramBot.class);
+        final SendResponse slow = Mockito.mock(SendResponse.class);
+        // @checkstyle MagicNumber (1 line)
+        Mockito.doReturn(429).when(slow).errorCode();
+        final ResponseParameters params =
+            Mockito.mock(ResponseParameters.class);
+        Mockito.doReturn(1).when(params).retryAfter();
+        Mockito.doReturn(params).when(slow).parameters();
+        final SendResponse fine = Mockito.mock(SendResponse.class);
+        Mockito.doReturn(true).when(fine).isOk();
+        final AtomicInteger calls = new AtomicInteger();
+        Mockito.doAnswer(
+            inv -> {
+                final SendResponse rsp;
+                if (calls.getAndIncrement() == 0) {
+                    rsp = slow;
+                } else {
+                    rsp = fine;
+                }
+                inv.getArgument(1, Callback.class).onResponse(
+                    inv.getArgument(0), rsp
+                );
+                return null;
+            }
+        ).when(bot).execute(
+            Mockito.any(SendMessage.class), Mockito.any(Callback.class)
+        );
+        try (TelegramQueue queue = new TelegramQueue(bot)) {
+            queue.post("2", "hello");
+            queue.start();
+            Mockito.verify(bot, Mockito.timeout(20_000L).times(2)).execute(
+                Mockito.any(SendMessage.class), Mockito.any(Callback.class)
+            );
+            TelegramQueueTest.drain(queue);
+            MatcherAssert.assertThat(queue.depth(), Matchers.equalTo(0));
+        }
+    }
+
+    /**
+     * TelegramQueue can deliver what is left, when closed.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void deliversLeftoversOnClose() throws Exception {
+        final TelegramBot bot = Mockito.mock(TelegramBot.class);
+        final SendResponse slow = Mockito.mock(SendResponse.class);
+        // @checkstyle MagicNumber (1 line)
+        Mockito.doReturn(429).when(slow).errorCode();
+        final ResponseParameters params =
+            Mockito.mock(ResponseParameters.class);
+        Mockito.doReturn(1).when(params).retryAfter();
+        Mockito.doReturn(params).when(slow).parameters();
+        final SendResponse fine = Mockito.mock(SendResponse.class);
+        Mockito.doReturn(true).when(fine).isOk();
+        final AtomicInteger calls = new AtomicInteger();
+        Mockito.doAnswer(
+            inv -> {
+                final SendResponse rsp;
+                if (calls.getAndIncrement() == 0) {
+                    rsp = slow;
+                } else {
+                    rsp = fine;
+                }
+                inv.getArgument(1, Callback.class).onResponse(
+                    inv.getArgument(0), rsp
+                );
+                return null;
+            }
+        ).when(bot).execute(
+            Mockito.any(SendMessage.class), Mockito.any(Callback.class)
+        );
+        final TelegramQueue queue = new TelegramQueue(bot);
+        queue.post("3", "bye");
+        queue.close();
+        Mockito.verify(bot, Mockito.times(2)).execute(
+            Mockito.any(SendMessage.class), Mockito.any(Callback.class)
+        );
+        MatcherAssert.assertThat(queue.depth(), Matchers.equalTo(0));
+    }
+
+    /**
+     * TelegramQueue can give the permit back when sending fails at once,
+     * so that later messages are not blocked forever.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void releasesPermitWhenSendingFails() throws Exception {
+        final TelegramBot bot = Mockito.mock(TelegramBot.class);
+        Mockito.doThrow(new IllegalStateException("offline")).when(bot)
+            .execute(
+                Mockito.any(SendMessage.class), Mockito.any(Callback.class)
+            );
+        final TelegramQueue queue = new TelegramQueue(bot);
+        final int total = 10;
+        for (int chat = 0; chat < total; ++chat) {
+            queue.post(Integer.toString(chat), "lost");
+        }
+        Assertions.assertTimeoutPreemptively(
+            Duration.ofSeconds(30L), queue::close
+        );
+        Mockito.verify(bot, Mockito.times(total)).execute(
+            Mockito.any(SendMessage.class), Mockito.any(Callback.class)
+        );
+        MatcherAssert.assertThat(queue.depth(), Matchers.equalTo(0));
+    }
+
+    /**
+     * Wait until the queue has no messages left, since the last
+     * callback is called after the bot is asked to send.
+     * @param queue The queue
+     */
+    private static void drain(final TelegramQueue queue) {
+        Assertions.assertTimeoutPreemptively(
+            Duration.ofSeconds(10L),
+            () -> {
+                while (queue.depth() > 0) {
+                    TimeUnit.MILLISECONDS.sleep(10L);
+                }
+            }
+        );
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link ThreadAppender}.
+ * @since 1.0
+ */
+public final class ThreadAppenderTest {
+
+    /**
+     * ThreadAppender can capture the log of its own thread only.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void capturesLogOfCurrentThread() throws Exception {
+        final ThreadAppender appender = new ThreadAppender(
+            new PatternLayout("%m\n"), 100
+        ).attach();
+        try {
+            appender.start();
+            Logger.getLogger(this.getClass()).info("mine");
+            CompletableFuture.runAsync(
+                () -> Logger.getLogger(this.getClass()).info("alien")
+            ).get();
+            MatcherAssert.assertThat(
+                appender.stop(), Matchers.equalTo("mine\n")
+            );
+        } finally {
+            Logger.getRootLogger().removeAppender(appender);
+        }
+    }
+
+    /**
+     * ThreadAppender can capture the log of a task in another thread.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void capturesLogOfTask() throws Exception {
+        final ThreadAppender appender = new ThreadAppender(
+            new PatternLayout("%m\n"), 100
+        ).attach();
+        try {
+            appender.start();
+            final ExecutorService threads =
+                Executors.newSingleThreadExecutor();
+            try {
+                threads.submit(
+                    appender.capturing(
+                        () -> {
+                            Logger.getLogger(this.getClass()).info("task");
+                            return true;
+                        }
+                    )
+                ).get();
+                threads.submit(
+                    () -> Logger.getLogger(this.getClass()).info("other")
+                ).get();
+            } finally {
+                threads.shutdown();
+            }
+            MatcherAssert.assertThat(
+                appender.stop(), Matchers.equalTo("task\n")
+            );
+        } finally {
+            Logger.getRootLogger().removeAppender(appender);
+        }
+    }
+
+    /**
+     * ThreadAppender can skip lines over its limit.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void skipsLinesOverLimit() throws Exception {
+        final ThreadAppender appender = new ThreadAppender(
+            new PatternLayout("%m\n"), 10
+        ).attach();
+        try {
+            final Logger logger = Logger.getLogger(this.getClass());
+            appender.start();
+            logger.info("first");
+            logger.info("second");
+            logger.info("third");
+            MatcherAssert.assertThat(
+                appender.stop(),
+                Matchers.equalTo("first\n... 2 more line(s) skipped\n")
+            );
+        } finally {
+            Logger.getRootLogger().removeAppender(appender);
+        }
+    }
+
+    /**
+     * ThreadAppender can skip events below its threshold.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void skipsEventsBelowThreshold() throws Exception {
+        final ThreadAppender appender = new ThreadAppender(
+            new PatternLayout("%m\n"), 100
+        ).attach();
+        appender.setThreshold(Level.WARN);
+        try {
+            final Logger logger = Logger.getLogger(this.getClass());
+            appender.start();
+            logger.info("quiet");
+            logger.warn("loud");
+            MatcherAssert.assertThat(
+                appender.stop(), Matchers.equalTo("loud\n")
+            );
+        } finally {
+            Logger.getRootLogger().removeAppender(appender);
+        }
+    }
+
+}
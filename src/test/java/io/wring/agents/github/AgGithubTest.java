@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents.github;
+
+import io.wring.agents.Agent;
+import io.wring.model.Base;
+import io.wring.model.Events;
+import io.wring.model.Vault;
+import java.net.HttpURLConnection;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.facets.fork.FkRegex;
+import org.takes.facets.fork.TkFork;
+import org.takes.http.FtRemote;
+import org.takes.rq.RqHref;
+import org.takes.rq.RqMethod;
+import org.takes.rs.RsText;
+import org.takes.rs.RsWithHeaders;
+import org.takes.rs.RsWithStatus;
+import org.takes.rs.RsWithType;
+
+/**
+ * Test case for {@link AgGithub}.
+ * @since 1.0
+ */
+public final class AgGithubTest {
+
+    /**
+     * AgGithub can postpone the pipe when the rate limit is over.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void postponesWhenBudgetIsOver() throws Exception {
+        final Base base = Mockito.mock(Base.class);
+        Mockito.doReturn(Mockito.mock(Vault.class)).when(base).vault();
+        final long reset = TimeUnit.MILLISECONDS.toSeconds(
+            System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(10L)
+        );
+        new FtRemote(
+            new TkFork(
+                new FkRegex(
+                    "/user",
+                    (Take) req -> new RsWithHeaders(
+                        new RsWithType(
+                            new RsText("{\"login\":\"jeff\"}"),
+                            "application/json"
+                        ),
+                        "X-RateLimit-Limit: 5000",
+                        "X-RateLimit-Remaining: 0",
+                        String.format("X-RateLimit-Reset: %d", reset)
+                    )
+                ),
+                new FkRegex(
+                    "/notifications",
+                    (Take) req -> new RsWithType(
+                        new RsText("[]"), "application/json"
+                    )
+                )
+            )
+        ).exec(
+            home -> Assertions.assertThrows(
+                Agent.PostponedException.class,
+                () -> new AgGithub(
+                    base,
+                    Json.createObjectBuilder()
+                        .add("token", "out-of-budget")
+                        .build(),
+                    home
+                ).push(Mockito.mock(Events.class))
+            )
+        );
+    }
+
+    /**
+     * AgGithub can read notifications since its previous run.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void readsNotificationsSinceLastRun() throws Exception {
+        final Base base = Mockito.mock(Base.class);
+        final Vault vault = Mockito.mock(Vault.class);
+        Mockito.doReturn(vault).when(base).vault();
+        final String mark = "@walter#notifications";
+        final String before = "2020-01-01T00:00:00Z";
+        Mockito.doReturn(Optional.of(before)).when(vault).value(mark);
+        final Collection<String> since = new LinkedList<>();
+        new FtRemote(
+            new TkFork(
+                new FkRegex(
+                    "/user",
+                    (Take) req -> new RsWithType(
+                        new RsText("{\"login\":\"walter\"}"),
+                        "application/json"
+                    )
+                ),
+                new FkRegex(
+                    "/notifications",
+                    (Take) req -> {
+                        final Response rsp;
+                        if ("PUT".equals(new RqMethod.Base(req).method())) {
+                            rsp = new RsWithStatus(
+                                HttpURLConnection.HTTP_RESET
+                            );
+                        } else {
+                            new RqHref.Base(req).href().param("since")
+                                .forEach(since::add);
+                            rsp = new RsWithType(
+                                new RsText("[]"), "application/json"
+                            );
+                        }
+                        return rsp;
+                    }
+                )
+            )
+        ).exec(
+            home -> new AgGithub(
+                base,
+                Json.createObjectBuilder()
+                    .add("token", "since-last-run")
+                    .build(),
+                home
+            ).push(Mockito.mock(Events.class))
+        );
+        MatcherAssert.assertThat(since, Matchers.contains(before));
+        Mockito.verify(vault).save(
+            Mockito.eq(mark), Mockito.argThat(Optional::isPresent)
+        );
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents.github;
+
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Issue;
+import com.jcabi.github.RtGithub;
+import com.jcabi.http.request.JdkRequest;
+import io.wring.model.Base;
+import io.wring.model.Vault;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.takes.Take;
+import org.takes.facets.fork.FkRegex;
+import org.takes.facets.fork.TkFork;
+import org.takes.http.FtRemote;
+import org.takes.rq.RqHref;
+import org.takes.rs.RsText;
+import org.takes.rs.RsWithType;
+
+/**
+ * Test case for {@link BoIssue}.
+ * @since 1.0
+ */
+public final class BoIssueTest {
+
+    /**
+     * BoIssue can fetch only the comments after the latest seen one.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void fetchesNewCommentsOnly() throws Exception {
+        final Vault vault = Mockito.mock(Vault.class);
+        final Base base = Mockito.mock(Base.class);
+        Mockito.doReturn(vault).when(base).vault();
+        final Collection<String> since = new LinkedList<>();
+        final Collection<String> body = new LinkedList<>();
+        new FtRemote(
+            new TkFork(
+                new FkRegex(
+                    "/repos/jeff/blog/issues/1/comments",
+                    (Take) req -> {
+                        new RqHref.Base(req).href().param("since")
+                            .forEach(since::add);
+                        return new RsWithType(
+                            new RsText(
+                                String.join(
+                                    "",
+                                    "[",
+                                    BoIssueTest.comment(5, "1", "@jeff, old"),
+                                    ",",
+                                    BoIssueTest.comment(7, "2", "@jeff, new"),
+                                    "]"
+                                )
+                            ),
+                            "application/json"
+                        );
+                    }
+                )
+            )
+        ).exec(
+            home -> body.add(
+                new BoIssue(
+                    base,
+                    new Identity("jeff"),
+                    new Issue.Smart(
+                        new RtGithub(new JdkRequest(home)).repos()
+                            .get(new Coordinates.Simple("jeff/blog"))
+                            .issues().get(1)
+                    ),
+                    Optional.of("5 2020-01-01T00:00:00Z")
+                ).text()
+            )
+        );
+        MatcherAssert.assertThat(
+            since, Matchers.contains("2020-01-01T00:00:00Z")
+        );
+        MatcherAssert.assertThat(
+            body.iterator().next(),
+            Matchers.allOf(
+                Matchers.containsString("@jeff, new"),
+                Matchers.not(Matchers.containsString("old"))
+            )
+        );
+        Mockito.verify(vault).save(
+            "jeff/blog#1", Optional.of("7 2020-01-02T00:00:00Z")
+        );
+    }
+
+    /**
+     * Make JSON of a comment.
+     * @param number Number of the comment
+     * @param day Day of January 2020 when it was created
+     * @param text The text
+     * @return JSON
+     */
+    private static String comment(final int number, final String day,
+        final String text) {
+        return String.format(
+            String.join(
+                "",
+                "{\"id\":%d,\"user\":{\"login\":\"alice\"},\"body\":\"%s\",",
+                "\"created_at\":\"2020-01-0%sT00:00:00Z\",",
+                "\"html_url\":\"https://github.com/jeff/blog/issues/1",
+                "#issuecomment-%1$d\"}"
+            ),
+            number, text, day
+        );
+    }
+
+}
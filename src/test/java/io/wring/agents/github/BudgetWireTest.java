@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents.github;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import io.wring.agents.Agent;
+import java.io.ByteArrayInputStream;
+import java.net.HttpURLConnection;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link BudgetWire}.
+ * @since 1.0
+ */
+public final class BudgetWireTest {
+
+    /**
+     * BudgetWire can postpone requests when the budget is exhausted.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void postponesWhenExhausted() throws Exception {
+        final long reset = System.currentTimeMillis()
+            + TimeUnit.MINUTES.toMillis(10L);
+        final Map<String, List<String>> headers = new HashMap<>(0);
+        headers.put("X-RateLimit-Limit", Collections.singletonList("5000"));
+        headers.put("X-RateLimit-Remaining", Collections.singletonList("0"));
+        headers.put(
+            "X-RateLimit-Reset",
+            Collections.singletonList(
+                Long.toString(TimeUnit.MILLISECONDS.toSeconds(reset))
+            )
+        );
+        final Response response = Mockito.mock(Response.class);
+        Mockito.doReturn(HttpURLConnection.HTTP_OK).when(response).status();
+        Mockito.doReturn(headers).when(response).headers();
+        final Wire origin = Mockito.mock(Wire.class);
+        Mockito.doReturn(response).when(origin).send(
+            Mockito.any(), Mockito.anyString(), Mockito.anyString(),
+            Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyInt()
+        );
+        final Wire wire = new BudgetWire(origin);
+        BudgetWireTest.get(wire);
+        MatcherAssert.assertThat(
+            BudgetWire.budget("exhausted").tight(System.currentTimeMillis()),
+            Matchers.is(true)
+        );
+        final Agent.PostponedException ex = Assertions.assertThrows(
+            Agent.PostponedException.class,
+            () -> BudgetWireTest.get(wire)
+        );
+        MatcherAssert.assertThat(
+            ex.until(),
+            Matchers.greaterThan(reset - TimeUnit.SECONDS.toMillis(1L))
+        );
+        Mockito.verify(origin, Mockito.times(1)).send(
+            Mockito.any(), Mockito.anyString(), Mockito.anyString(),
+            Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyInt()
+        );
+    }
+
+    /**
+     * Make a GET request through the wire.
+     * @param wire The wire
+     * @throws Exception If fails
+     */
+    private static void get(final Wire wire) throws Exception {
+        wire.send(
+            Mockito.mock(Request.class), "https://api.github.com/user",
+            Request.GET,
+            Collections.singletonList(
+                new AbstractMap.SimpleImmutableEntry<>(
+                    "Authorization", "token exhausted"
+                )
+            ),
+            new ByteArrayInputStream(new byte[0]), 0, 0
+        );
+    }
+
+}
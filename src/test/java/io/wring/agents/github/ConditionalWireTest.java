@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents.github;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import java.io.ByteArrayInputStream;
+import java.net.HttpURLConnection;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link ConditionalWire}.
+ * @since 1.0
+ */
+public final class ConditionalWireTest {
+
+    /**
+     * ConditionalWire can return the saved response on 304.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void returnsSavedResponseWhenNotModified() throws Exception {
+        final Wire origin = Mockito.mock(Wire.class);
+        final Response first = ConditionalWireTest.response(
+            HttpURLConnection.HTTP_OK,
+            Collections.singletonMap(
+                "ETag", Collections.singletonList("\"abc\"")
+            )
+        );
+        final Response second = ConditionalWireTest.response(
+            HttpURLConnection.HTTP_NOT_MODIFIED, Collections.emptyMap()
+        );
+        Mockito.doReturn(first).doReturn(second).when(origin).send(
+            Mockito.any(), Mockito.anyString(), Mockito.anyString(),
+            Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyInt()
+        );
+        final Wire wire = new ConditionalWire(origin);
+        ConditionalWireTest.get(wire, "https://api.github.com/a?since=1");
+        MatcherAssert.assertThat(
+            ConditionalWireTest.get(wire, "https://api.github.com/a?since=2"),
+            Matchers.sameInstance(first)
+        );
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Collection<Map.Entry<String, String>>> headers =
+            ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(origin, Mockito.times(2)).send(
+            Mockito.any(), Mockito.anyString(), Mockito.anyString(),
+            headers.capture(), Mockito.any(), Mockito.anyInt(),
+            Mockito.anyInt()
+        );
+        MatcherAssert.assertThat(
+            headers.getValue(),
+            Matchers.hasItem(
+                new AbstractMap.SimpleImmutableEntry<>(
+                    "If-None-Match", "\"abc\""
+                )
+            )
+        );
+    }
+
+    /**
+     * ConditionalWire can wait for the poll interval.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void respectsPollInterval() throws Exception {
+        final Wire origin = Mockito.mock(Wire.class);
+        final Map<String, List<String>> hdrs = new HashMap<>(0);
+        hdrs.put("Last-Modified", Collections.singletonList("yesterday"));
+        hdrs.put("X-Poll-Interval", Collections.singletonList("60"));
+        final Response first = ConditionalWireTest.response(
+            HttpURLConnection.HTTP_OK, hdrs
+        );
+        Mockito.doReturn(first).when(origin).send(
+            Mockito.any(), Mockito.anyString(), Mockito.anyString(),
+            Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyInt()
+        );
+        final Wire wire = new ConditionalWire(origin);
+        ConditionalWireTest.get(wire, "https://api.github.com/b");
+        ConditionalWireTest.get(wire, "https://api.github.com/b");
+        Mockito.verify(origin, Mockito.times(1)).send(
+            Mockito.any(), Mockito.anyString(), Mockito.anyString(),
+            Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyInt()
+        );
+    }
+
+    /**
+     * Make a GET request through the wire.
+     * @param wire The wire
+     * @param uri The URI
+     * @return Response
+     * @throws Exception If fails
+     */
+    private static Response get(final Wire wire, final String uri)
+        throws Exception {
+        return wire.send(
+            Mockito.mock(Request.class), uri, Request.GET,
+            Collections.singletonList(
+                new AbstractMap.SimpleImmutableEntry<>(
+                    "Authorization", "token x"
+                )
+            ),
+            new ByteArrayInputStream(new byte[0]), 0, 0
+        );
+    }
+
+    /**
+     * Make a response.
+     * @param status HTTP status
+     * @param headers Headers
+     * @return Response
+     */
+    private static Response response(final int status,
+        final Map<String, List<String>> headers) {
+        final Response response = Mockito.mock(Response.class);
+        Mockito.doReturn(status).when(response).status();
+        Mockito.doReturn(headers).when(response).headers();
+        return response;
+    }
+
+}
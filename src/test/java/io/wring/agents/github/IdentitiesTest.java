@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.agents.github;
+
+import com.jcabi.github.Github;
+import com.jcabi.github.User;
+import com.jcabi.github.Users;
+import io.wring.agents.Agent;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link Identities}.
+ * @since 1.0
+ */
+public final class IdentitiesTest {
+
+    /**
+     * Identities can ask GitHub only once per token.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void asksGithubOnce() throws Exception {
+        final Github github = IdentitiesTest.github();
+        final Identities identities =
+            new Identities(TimeUnit.MINUTES.toMillis(1L));
+        identities.identity("t1", github);
+        final Identity self = identities.identity("t1", github);
+        MatcherAssert.assertThat(self.login(), Matchers.equalTo("jeff"));
+        MatcherAssert.assertThat(
+            self.mentioned("hey,\n@Jeff, look!"),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            self.mentioned("@jeffrey, look"),
+            Matchers.is(false)
+        );
+        Mockito.verify(github, Mockito.times(1)).users();
+    }
+
+    /**
+     * Identities can forget an invalid token.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void forgetsInvalidToken() throws Exception {
+        final Github github = IdentitiesTest.github();
+        final Identities identities =
+            new Identities(TimeUnit.MINUTES.toMillis(1L));
+        identities.identity("t2", github);
+        identities.invalidate("t2");
+        identities.identity("t2", github);
+        Mockito.verify(github, Mockito.times(2)).users();
+    }
+
+    /**
+     * Identities can report a rejected token.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void reportsRejectedToken() throws Exception {
+        final Github github = Mockito.mock(Github.class);
+        Mockito.doThrow(new AssertionError("401 Unauthorized"))
+            .when(github).users();
+        Assertions.assertThrows(
+            Agent.UserException.class,
+            () -> new Identities(1L).identity("t3", github)
+        );
+    }
+
+    /**
+     * Make GitHub client of the user "jeff".
+     * @return GitHub client
+     * @throws Exception If fails
+     */
+    private static Github github() throws Exception {
+        final Github github = Mockito.mock(Github.class);
+        final Users users = Mockito.mock(Users.class);
+        final User user = Mockito.mock(User.class);
+        Mockito.doReturn(users).when(github).users();
+        Mockito.doReturn(user).when(users).self();
+        Mockito.doReturn("jeff").when(user).login();
+        return github;
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.dynamo;
+
+import io.wring.model.Vault;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Integration case for {@link CachedVault}.
+ * @since 1.0
+ */
+public final class CachedVaultITCase {
+
+    /**
+     * CachedVault can write all changes in one flush.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void writesChangesOnFlush() throws Exception {
+        final Vault vault = new CachedVault(
+            new DyVault(new Dynamo()), 10, TimeUnit.MINUTES.toMillis(1L)
+        );
+        final int total = 40;
+        for (int idx = 0; idx < total; ++idx) {
+            vault.save(String.format("k%d", idx), Optional.of("first"));
+            vault.save(String.format("k%d", idx), Optional.of("second"));
+        }
+        final Vault origin = new DyVault(new Dynamo());
+        MatcherAssert.assertThat(
+            origin.value("k7").isPresent(),
+            Matchers.is(false)
+        );
+        vault.flush();
+        for (int idx = 0; idx < total; ++idx) {
+            MatcherAssert.assertThat(
+                origin.value(String.format("k%d", idx)).get(),
+                Matchers.equalTo("second")
+            );
+        }
+    }
+
+    /**
+     * CachedVault can read values through the cache.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void readsThroughCache() throws Exception {
+        final Vault origin = new DyVault(new Dynamo());
+        origin.save("cached", Optional.of("old"));
+        final Vault vault = new CachedVault(
+            new DyVault(new Dynamo()), 10, TimeUnit.MINUTES.toMillis(1L)
+        );
+        MatcherAssert.assertThat(
+            vault.value("cached").get(),
+            Matchers.equalTo("old")
+        );
+        origin.save("cached", Optional.of("new"));
+        MatcherAssert.assertThat(
+            vault.value("cached").get(),
+            Matchers.equalTo("old")
+        );
+    }
+
+}
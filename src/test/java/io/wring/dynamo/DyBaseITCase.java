@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.dynamo;
+
+import com.jcabi.aspects.Tv;
+import io.wring.model.Base;
+import io.wring.model.Pipe;
+import io.wring.model.Pipes;
+import io.wring.model.XePrint;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Integration case for {@link DyBase}.
+ * @since 1.0
+ */
+public final class DyBaseITCase {
+
+    /**
+     * DyBase can find pipes due and skip the ones postponed.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void findsDuePipes() throws Exception {
+        final Base base = new DyBase(new Dynamo());
+        final Pipes pipes = new DyUser(new Dynamo(), "urn:github:8").pipes();
+        pipes.add("{\"due\": true}");
+        final Pipe pipe = pipes.iterate().iterator().next();
+        final String id = new XePrint(pipe.asXembly())
+            .text("{/pipe/id/text()}");
+        MatcherAssert.assertThat(
+            DyBaseITCase.ids(base.pipes()),
+            Matchers.hasItem(id)
+        );
+        DyPipe.class.cast(pipe).schedule(
+            System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(Tv.TEN)
+        );
+        MatcherAssert.assertThat(
+            DyBaseITCase.ids(base.pipes()),
+            Matchers.not(Matchers.hasItem(id))
+        );
+    }
+
+    /**
+     * DyBase can postpone quiet pipes more and more.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void postponesQuietPipes() throws Exception {
+        final Base base = new DyBase(new Dynamo());
+        final Pipes pipes = new DyUser(new Dynamo(), "urn:github:9").pipes();
+        pipes.add("{\"interval\": 5}");
+        final String id = new XePrint(
+            pipes.iterate().iterator().next().asXembly()
+        ).text("{/pipe/id/text()}");
+        final long number = Long.parseLong(id);
+        pipes.pipe(number).status("nothing", 0);
+        pipes.pipe(number).status("nothing again", 0);
+        MatcherAssert.assertThat(
+            DyBaseITCase.ids(base.pipes()),
+            Matchers.not(Matchers.hasItem(id))
+        );
+        pipes.pipe(number).status("something", 1);
+        MatcherAssert.assertThat(
+            DyBaseITCase.ids(base.pipes()),
+            Matchers.hasItem(id)
+        );
+    }
+
+    /**
+     * DyBase can keep failed pipes running as often as before.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void doesNotPostponeFailedPipes() throws Exception {
+        final Base base = new DyBase(new Dynamo());
+        final Pipes pipes = new DyUser(new Dynamo(), "urn:github:10").pipes();
+        pipes.add("{\"interval\": 5}");
+        final String id = new XePrint(
+            pipes.iterate().iterator().next().asXembly()
+        ).text("{/pipe/id/text()}");
+        final long number = Long.parseLong(id);
+        pipes.pipe(number).status("something", 1);
+        pipes.pipe(number).failed("broken");
+        pipes.pipe(number).failed("broken again");
+        MatcherAssert.assertThat(
+            DyBaseITCase.ids(base.pipes()),
+            Matchers.hasItem(id)
+        );
+    }
+
+    /**
+     * IDs of pipes.
+     * @param pipes The pipes
+     * @return IDs
+     */
+    private static Collection<String> ids(final Collection<Pipe> pipes) {
+        return pipes.stream()
+            .map(
+                pipe -> {
+                    try {
+                        return new XePrint(pipe.asXembly())
+                            .text("{/pipe/id/text()}");
+                    } catch (final IOException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            )
+            .collect(Collectors.toList());
+    }
+
+}
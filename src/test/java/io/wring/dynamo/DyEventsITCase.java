@@ -29,12 +29,17 @@
  */
 package io.wring.dynamo;
 
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Tv;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Conditions;
+import com.jcabi.dynamo.Region;
 import com.jcabi.matchers.XhtmlMatchers;
 import io.wring.model.Event;
 import io.wring.model.Events;
 import io.wring.model.User;
+import io.wring.model.XePrint;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -64,6 +69,73 @@ public final class DyEventsITCase {
         );
     }
 
+    /**
+     * DyEvents can count events, up to the maximum.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void countsEvents() throws Exception {
+        final Events events = new DyUser(new Dynamo(), "jacob").events();
+        for (int idx = 0; idx < Tv.SEVEN; ++idx) {
+            events.post(String.format("counted #%d", idx), "text");
+        }
+        MatcherAssert.assertThat(
+            events.total(Tv.TWENTY), Matchers.equalTo(Tv.SEVEN)
+        );
+        MatcherAssert.assertThat(
+            events.total(Tv.FIVE), Matchers.equalTo(Tv.FIVE)
+        );
+    }
+
+    /**
+     * DyEvents can keep the total of events up to date.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void keepsTotalOfEvents() throws Exception {
+        final DyEvents events = new DyEvents(new Dynamo(), "urn:test:total");
+        events.post("to be counted", "text");
+        MatcherAssert.assertThat(events.reconcile(), Matchers.equalTo(1));
+        for (int idx = 0; idx < Tv.TWENTY + Tv.FIVE; ++idx) {
+            events.post(String.format("total #%d", idx), "text");
+            events.post(String.format("total #%d", idx), "more text");
+        }
+        final Event event = events.event("to be counted");
+        event.delete();
+        event.delete();
+        MatcherAssert.assertThat(
+            events.total(Integer.MAX_VALUE),
+            Matchers.equalTo(Tv.TWENTY + Tv.FIVE)
+        );
+        MatcherAssert.assertThat(
+            events.total(Tv.TEN), Matchers.equalTo(Tv.TEN)
+        );
+        MatcherAssert.assertThat(
+            events.reconcile(), Matchers.equalTo(Tv.TWENTY + Tv.FIVE)
+        );
+        events.post("after reconciliation", "text");
+        MatcherAssert.assertThat(
+            events.total(Integer.MAX_VALUE),
+            Matchers.equalTo(Tv.TWENTY + Tv.FIVE + 1)
+        );
+    }
+
+    /**
+     * DyEvents can create the total of events on the first count.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void createsTotalOnFirstCount() throws Exception {
+        final DyEvents events = new DyEvents(new Dynamo(), "urn:test:lazy");
+        events.post("first", "text");
+        events.post("second", "text");
+        MatcherAssert.assertThat(events.total(1), Matchers.equalTo(1));
+        events.post("third", "text");
+        MatcherAssert.assertThat(
+            events.total(Integer.MAX_VALUE), Matchers.equalTo(Tv.THREE)
+        );
+    }
+
     /**
      * DyEvents can delete events.
      * @throws Exception If some problem inside
@@ -95,6 +167,21 @@ public final class DyEventsITCase {
         events.post(title, "second body\n\n");
         MatcherAssert.assertThat(
             new Xembler(events.iterate().iterator().next().asXembly()).xml(),
+            XhtmlMatchers.hasXPaths(
+                "/event[preview='second body']",
+                "/event[not(text)]"
+            )
+        );
+        MatcherAssert.assertThat(
+            new XePrint(events.event(title).asXembly())
+                .text("{/event/md5/text()}"),
+            Matchers.equalTo(
+                new XePrint(events.iterate().iterator().next().asXembly())
+                    .text("{/event/md5/text()}")
+            )
+        );
+        MatcherAssert.assertThat(
+            new Xembler(events.event(title).asXembly()).xml(),
             XhtmlMatchers.hasXPaths(
                 "/event/text[contains(.,'first')]",
                 "/event/text[contains(.,'second body')]",
@@ -103,6 +190,94 @@ public final class DyEventsITCase {
         );
     }
 
+    /**
+     * DyEvents can keep only the latest texts of a busy event.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void keepsLatestTextsOfBusyEvents() throws Exception {
+        final Events events = new DyUser(new Dynamo(), "oscar").events();
+        final String title = "a busy event";
+        for (int idx = 0; idx < Tv.TWENTY; ++idx) {
+            events.post(title, String.format("text number %d", idx));
+        }
+        MatcherAssert.assertThat(
+            new Xembler(events.event(title).asXembly()).xml(),
+            XhtmlMatchers.hasXPaths(
+                "/event[rank=20]",
+                "/event[preview='text number 19']",
+                "/event/text[starts-with(.,'text number 19')]",
+                "/event/text[contains(.,'text number 4')]",
+                "/event/text[not(contains(.,'text number 3'))]"
+            )
+        );
+    }
+
+    /**
+     * DyEvents can read and append to events with texts inside.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void appendsToOldEvents() throws Exception {
+        final Region region = new Dynamo();
+        final String urn = "urn:test:old";
+        final String title = "an old event";
+        region.table("events").put(
+            new Attributes()
+                .with("urn", urn)
+                .with("title", title)
+                .with("rank", 1)
+                .with("text", "the oldest text")
+                .with(
+                    "texts",
+                    new AttributeValue().withL(
+                        new AttributeValue().withS("an old text")
+                    )
+                )
+        );
+        final Events events = new DyEvents(region, urn);
+        MatcherAssert.assertThat(
+            new Xembler(events.event(title).asXembly()).xml(),
+            XhtmlMatchers.hasXPaths(
+                "/event/text[starts-with(.,'an old text')]",
+                "/event/text[contains(.,'the oldest text')]"
+            )
+        );
+        events.post(title, "a new text");
+        MatcherAssert.assertThat(
+            new Xembler(events.event(title).asXembly()).xml(),
+            XhtmlMatchers.hasXPaths(
+                "/event[rank=2]",
+                "/event/text[starts-with(.,'a new text')]",
+                "/event/text[contains(.,'an old text')]",
+                "/event/text[contains(.,'the oldest text')]"
+            )
+        );
+    }
+
+    /**
+     * DyEvents can delete texts of the event, with the event.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void deletesTextsOfEvent() throws Exception {
+        final Region region = new Dynamo();
+        final String urn = "urn:test:deleted";
+        final Events events = new DyEvents(region, urn);
+        final String title = "a deleted event";
+        events.post(title, "a text to delete");
+        events.post(title, "another text to delete");
+        events.event(title).delete();
+        MatcherAssert.assertThat(
+            region.table("texts").frame()
+                .where(
+                    "event",
+                    Conditions.equalTo(String.format("%s#%s", urn, title))
+                ),
+            Matchers.emptyIterable()
+        );
+    }
+
     /**
      * DyEvents can post and vote.
      * @throws Exception If some problem inside
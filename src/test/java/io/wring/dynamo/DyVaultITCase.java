@@ -30,6 +30,10 @@
 package io.wring.dynamo;
 
 import io.wring.model.Vault;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
@@ -59,6 +63,29 @@ public final class DyVaultITCase {
             vault.value(key).get(),
             Matchers.endsWith(" one")
         );
+        vault.flush();
+        MatcherAssert.assertThat(
+            new DyVault(new Dynamo()).value(key).get(),
+            Matchers.endsWith(" one")
+        );
+    }
+
+    /**
+     * DyVault can read many values at once.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void readsManyValues() throws Exception {
+        final Vault vault = new DyVault(new Dynamo());
+        final Map<String, String> values = new HashMap<>(0);
+        final int total = 130;
+        for (int idx = 0; idx < total; ++idx) {
+            values.put(String.format("many-%d", idx), Integer.toString(idx));
+        }
+        new DyVault(new Dynamo()).save(values);
+        final Collection<String> keys = new ArrayList<>(values.keySet());
+        keys.add("absent");
+        MatcherAssert.assertThat(vault.values(keys), Matchers.equalTo(values));
     }
 
 }
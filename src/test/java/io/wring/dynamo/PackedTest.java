@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.jcabi.aspects.Tv;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Packed}.
+ * @since 1.0
+ */
+public final class PackedTest {
+
+    /**
+     * Packed can compress long texts.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void compressesLongTexts() throws Exception {
+        final String text = String.join(
+            "\n",
+            Collections.nCopies(
+                Tv.HUNDRED, "\tat io.wring.agents.Exec.run(Exec.java:42) €"
+            )
+        );
+        final AttributeValue attr = Packed.pack(text);
+        MatcherAssert.assertThat(
+            attr.getB().remaining(),
+            Matchers.lessThan(text.length() / Tv.TEN)
+        );
+        MatcherAssert.assertThat(
+            Packed.unpack(attr), Matchers.equalTo(text)
+        );
+    }
+
+    /**
+     * Packed can keep short texts plain.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void keepsShortTextsPlain() throws Exception {
+        final String text = "short \u0000 text";
+        MatcherAssert.assertThat(
+            Packed.unpack(Packed.pack(text)), Matchers.equalTo(text)
+        );
+    }
+
+    /**
+     * Packed can read texts that are not packed.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void readsPlainStrings() throws Exception {
+        MatcherAssert.assertThat(
+            Packed.unpack(new AttributeValue().withS("an old text")),
+            Matchers.equalTo("an old text")
+        );
+    }
+
+}
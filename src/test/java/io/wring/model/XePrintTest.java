@@ -94,6 +94,36 @@ public final class XePrintTest {
         );
     }
 
+    /**
+     * Prints escaped text without building a DOM.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void printsEscapedText() throws Exception {
+        MatcherAssert.assertThat(
+            new XePrint(
+                new Directives().add("e").add("t").set("a").up()
+                    .add("t").set("<&'\"\n\u00e9>").up()
+            ).text("{/e/t/text()} {/e/x/text()|/e/t[2]/text()}"),
+            Matchers.equalTo("a <&'\"\n\u00e9>")
+        );
+    }
+
+    /**
+     * Prints by XPath from complex directives.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void printsFromComplexDirectives() throws Exception {
+        MatcherAssert.assertThat(
+            new XePrint(
+                new Directives().add("p").attr("id", "7").add("q")
+                    .set("one").xpath("/p").add("q").set("two")
+            ).text("{/p/@id}: {/p/q[last()]/text()}, {/p/q/text()}"),
+            Matchers.equalTo("7: two, one")
+        );
+    }
+
     /**
      * Prints by missed XPath.
      */
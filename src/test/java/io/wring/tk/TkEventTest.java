@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016-2020, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the wring.io nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.wring.tk;
+
+import com.jcabi.matchers.XhtmlMatchers;
+import io.wring.fake.FkBase;
+import io.wring.model.Base;
+import io.wring.model.Events;
+import io.wring.model.User;
+import java.net.HttpURLConnection;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.takes.HttpException;
+import org.takes.Take;
+import org.takes.rq.RqFake;
+import org.takes.rq.RqWithHeader;
+import org.takes.rs.RsPrint;
+
+/**
+ * Test case for {@link TkEvent}.
+ * @since 1.0
+ */
+public final class TkEventTest {
+
+    /**
+     * TkEvent can render one event.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void rendersOneEvent() throws Exception {
+        final Take take = new TkAppAuth(new TkEvent(new FkBase()));
+        MatcherAssert.assertThat(
+            XhtmlMatchers.xhtml(
+                new RsPrint(
+                    take.act(
+                        new RqWithHeader(
+                            new RqFake("GET", "/event?title=test"),
+                            "Accept",
+                            "text/xml"
+                        )
+                    )
+                ).printBody()
+            ),
+            XhtmlMatchers.hasXPaths(
+                "/page/event[title='test']",
+                "/page/event/links/link[@rel='delete']"
+            )
+        );
+    }
+
+    /**
+     * TkEvent can return 404 for an event that is not found.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void rejectsUnknownEvent() throws Exception {
+        final Events events = Mockito.mock(Events.class);
+        Mockito.doThrow(new IllegalArgumentException("not found"))
+            .when(events).event(Mockito.anyString());
+        final User user = Mockito.mock(User.class);
+        Mockito.doReturn(events).when(user).events();
+        final Base base = Mockito.mock(Base.class);
+        Mockito.doReturn(user).when(base).user(Mockito.anyString());
+        final Take take = new TkAppAuth(new TkEvent(base));
+        MatcherAssert.assertThat(
+            Assertions.assertThrows(
+                HttpException.class,
+                () -> take.act(new RqFake("GET", "/event?title=absent"))
+            ).code(),
+            Matchers.equalTo(HttpURLConnection.HTTP_NOT_FOUND)
+        );
+        MatcherAssert.assertThat(
+            Assertions.assertThrows(
+                HttpException.class,
+                () -> take.act(new RqFake("GET", "/event"))
+            ).code(),
+            Matchers.equalTo(HttpURLConnection.HTTP_NOT_FOUND)
+        );
+    }
+
+}
@@ -35,6 +35,7 @@ import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.takes.Take;
 import org.takes.rq.RqFake;
+import org.takes.rq.RqWithHeader;
 import org.takes.rs.RsPrint;
 
 /**
@@ -56,4 +57,30 @@ public final class TkFaviconTest {
         );
     }
 
+    /**
+     * TkFavicon can tell the browser that its icon is still valid.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void respondsNotModified() throws Exception {
+        final Take take = new TkAppAuth(new TkFavicon(new FkBase()));
+        String etag = "";
+        for (final String header : take.act(new RqFake()).head()) {
+            if (header.startsWith("ETag: ")) {
+                etag = header.substring("ETag: ".length());
+            }
+        }
+        MatcherAssert.assertThat(
+            new RsPrint(
+                take.act(
+                    new RqWithHeader(
+                        new RqFake(),
+                        String.format("If-None-Match: %s", etag)
+                    )
+                )
+            ).print(),
+            Matchers.startsWith("HTTP/1.1 304 ")
+        );
+    }
+
 }